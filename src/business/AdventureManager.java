@@ -1,5 +1,9 @@
 package business;
 
+import business.combat.CombatSink;
+import business.combat.TurnScheduler;
+import business.dice.Dice;
+import business.dice.SplittableDice;
 import business.entities.Adventure;
 import business.entities.Characters.Champion;
 import business.entities.Characters.CharacterGame;
@@ -8,13 +12,12 @@ import business.entities.Characters.Warrior;
 import business.entities.Encounter;
 import business.entities.Monsters.Boss;
 import business.entities.Monsters.Monster;
-import persistence.API.APIAdventureDAO;
+import persistence.API.SyncedAdventureDAO;
 import persistence.AdventureDAO;
 import persistence.JSON.JSONAdventureDAO;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 /**
  * This class is to manage all the logic regarding an adventure{@link Adventure}.
@@ -40,6 +43,11 @@ public class AdventureManager {
      */
     private final CharacterManager cm;
 
+    /**
+     * Dice {@link Dice} rolled during the adventures played.
+     */
+    private Dice dice;
+
     /**
      * Constructor to create an adventure manager.
      */
@@ -47,26 +55,39 @@ public class AdventureManager {
         this.aDao = new JSONAdventureDAO();
         this.em = new EncounterManager();
         this.cm = new CharacterManager();
+        this.dice = new SplittableDice();
     }
 
     /**
      * Setter method to set the interface of the adventureDAO {@link AdventureDAO} to be used.
+     * The API one works over a local copy of the adventures of the API, sending the new ones in the background.
      */
     public void setAdventureDAO(int option) {
         if (option == 1) {
             this.aDao = new JSONAdventureDAO();
         }
         else {
-            this.aDao = new APIAdventureDAO();
+            this.aDao = new SyncedAdventureDAO();
         }
     }
 
+    /**
+     * Setter method to set the dice {@link Dice} rolled during the adventures played, for instance seeded ones to
+     * replay an adventure.
+     * @param dice dice to be rolled.
+     */
+    public void setDice(Dice dice) {
+        this.dice = dice;
+        this.em.setDice(dice);
+        this.cm.setDice(dice);
+    }
+
     /**
      * Method to check if the file storing the adventures can be accessed.
      * @return true if is found, false if it is not.
      */
     public boolean checkAdventureFile() {
-        return aDao.read() != null;
+        return aDao.readNames() != null;
     }
 
     /**
@@ -75,10 +96,10 @@ public class AdventureManager {
      * @return true if it is unique, false if not.
      */
     public boolean isUniqueName(String name) {
-        List<Adventure> adventures = new ArrayList<>(aDao.read());
+        List<String> names = aDao.readNames();
 
-        for (Adventure adventure : adventures) {
-            if (adventure.getName().equals(name)) {
+        for (String adventureName : names) {
+            if (adventureName.equals(name)) {
                 return false;
             }
         }
@@ -105,6 +126,30 @@ public class AdventureManager {
      */
     public List<Adventure> getAdventures() {return aDao.read();}
 
+    /**
+     * Method to get the names of all the adventures stored in the system, without loading their encounters.
+     * @return a list of strings containing the names of the adventures {@link Adventure}.
+     */
+    public List<String> getAdventureNames() {return aDao.readNames();}
+
+    /**
+     * Method to get a single adventure stored in the system.
+     * @param name string containing the name of the adventure {@link Adventure}.
+     * @return the adventure {@link Adventure} instance with that name, null if it is not found.
+     */
+    public Adventure getAdventure(String name) {return aDao.read(name);}
+
+    /**
+     * Method to make sure all the adventures {@link Adventure} created have been persisted.
+     */
+    public void flush() {aDao.flush();}
+
+    /**
+     * Method to start reading the adventures {@link Adventure} in the background, so the next read does not have to
+     * wait for the whole request.
+     */
+    public void preload() {aDao.preload();}
+
     /**
      * Method to calculate the initiatives of either monsters{@link Monster} and characters{@link CharacterGame} and
      * sort them in order.
@@ -133,33 +178,13 @@ public class AdventureManager {
      * is going to attack.
      */
     private String initiativeOrderLog(Encounter encounter, List<CharacterGame> party) {
-        int i =0, j = 0;
+        TurnScheduler turns = new TurnScheduler(encounter.getMonsters(), party);
         StringBuilder log = new StringBuilder();
         log.append("\nRolling initiative...\n");
 
-        while (i < encounter.getMonsters().size() && j < party.size()) {
-            if (encounter.getMonsters().get(i).getInitiative() > party.get(j).getInitiative()) {
-                log.append("  - ").append(encounter.getMonsters().get(i).getInitiative()).append("\t")
-                        .append(encounter.getMonsters().get(i).getName()).append("\n");
-                i++;
-            }
-            else {
-                log.append("  - ").append(party.get(j).getInitiative()).append("\t")
-                        .append(party.get(j).getName()).append("\n");
-                j++;
-            }
-        }
-        if (i < encounter.getMonsters().size()) {
-            for (int k = i; k < encounter.getMonsters().size(); k++) {
-                log.append("  - ").append(encounter.getMonsters().get(k).getInitiative()).append("\t")
-                        .append(encounter.getMonsters().get(k).getName()).append("\n");
-            }
-        }
-        else if (j < party.size()) {
-            for (int k = j; k < party.size(); k++) {
-                log.append("  - ").append(party.get(k).getInitiative()).append("\t")
-                        .append(party.get(k).getName()).append("\n");
-            }
+        for (int turn = turns.first(); turn != TurnScheduler.END; turn = turns.next(turn)) {
+            log.append("  - ").append(turns.getInitiative(turn)).append("\t")
+                    .append(turns.getName(turn)).append("\n");
         }
         return log.toString();
     }
@@ -169,107 +194,94 @@ public class AdventureManager {
      * @param encounter encounter {@link Encounter} object containing the encounter the party members
      * {@link CharacterGame} are currently facing.
      * @param party list of character {@link CharacterGame} instances containing the characters playing the adventure.
-     * @return a string containing all the actions performed during the combat stage and its results.
+     * @param sink sink {@link CombatSink} told about every action performed during the combat stage and its results.
      */
-    public String combatStage(Encounter encounter, List<CharacterGame> party) {
-        StringBuilder log = new StringBuilder();
-        int i, j, l = 1;
-        while (encounter.getMonsters().size() != 0 && cm.partyIsAlive(party)) {
-            i = 0;
-            j = 0;
-            log.append("\nRound ").append(l).append(":\n").append("Party:\n");
-            for (CharacterGame characterGame : party) {
-                log.append("  - ").append(characterGame.getName()).append("\tHP: ").append(characterGame.getHitPoints())
-                        .append(" / ").append(characterGame.getMaxHitPoints()).append(" hit points");
-                if (characterGame.getShield() > 0) log.append(" (Shield: ").append(characterGame.getShield()).append(")");
-                log.append("\n");
-            }
-            while (i < encounter.getMonsters().size() && j < party.size() && (encounter.getMonsters().size() != 0 && cm.partyIsAlive(party))) {
-                if (encounter.getMonsters().get(i).getInitiative() > party.get(j).getInitiative()) {
-                    log.append(monsterAttack(encounter.getMonsters(), i, party));
-                    i++;
-                } else {
-                    if (party.get(j).isAlive()) {
-                        log.append(characterAttack(party.get(j), encounter.getMonsters(), party));
-                    }
-                    j++;
-                }
-            }
-            if (i < encounter.getMonsters().size()) {
-                for (int k = i; k < encounter.getMonsters().size(); k++) {
-                    if (encounter.getMonsters().size() != 0 && cm.partyIsAlive(party)) {
-                        log.append(monsterAttack(encounter.getMonsters(), i, party));
-                    }
+    public void combatStage(Encounter encounter, List<CharacterGame> party, CombatSink sink) {
+        combatStage(encounter, party, sink, dice);
+    }
+
+    /**
+     * Method with the logic involving the combat stage, rolling the given dice.
+     * @param encounter encounter {@link Encounter} object containing the encounter the party members
+     * {@link CharacterGame} are currently facing.
+     * @param party list of character {@link CharacterGame} instances containing the characters playing the adventure.
+     * @param sink sink {@link CombatSink} told about every action performed during the combat stage and its results.
+     * @param dice dice {@link Dice} to roll.
+     */
+    public void combatStage(Encounter encounter, List<CharacterGame> party, CombatSink sink, Dice dice) {
+        TurnScheduler turns = new TurnScheduler(encounter.getMonsters(), party);
+        int l = 1;
+        while (!turns.isOver()) {
+            sink.roundStarted(l, party);
+            for (int turn = turns.first(); turn != TurnScheduler.END && !turns.isOver(); turn = turns.next(turn)) {
+                if (turns.getMonster(turn) != null) {
+                    monsterAttack(turns.getMonster(turn), party, turns, sink, dice);
                 }
-            } else if (j < party.size()) {
-                for (int k = j; k < party.size(); k++) {
-                    if (encounter.getMonsters().size() != 0 && party.get(k).isAlive()) {
-                        log.append(characterAttack(party.get(j), encounter.getMonsters(), party));
-                    }
+                else if (turns.getCharacter(turn).isAlive()) {
+                    characterAttack(turns.getCharacter(turn), encounter.getMonsters(), party, turns, sink, dice);
                 }
             }
-            log.append("\nEnd of round ").append(l).append(".\n");
+            sink.roundEnded(l);
             l++;
         }
-        if (cm.partyIsAlive(party)) {
-            log.append("All enemies are defeated\n\n");
+        if (turns.partyIsAlive()) {
+            sink.enemiesDefeated();
         }
-        return log.toString();
     }
 
     /**
      * Method with the logic involving the monster{@link Monster} attack.
-     * @param monsters monster list {@link Monster} containing monster instances.
-     * @param i index of the monster {@link Monster} that is going to attack.
+     * @param monster monster {@link Monster} that is going to attack.
      * @param party list of character {@link CharacterGame} instances containing the characters playing the adventure.
-     * @return a string containing the attack information(name of the monster, damage, objective, if it landed or not,
-     * if it killed the objective or not.
+     * @param turns turn scheduler {@link TurnScheduler} of the combat, told about the characters attacked.
+     * @param sink sink {@link CombatSink} told about the attack (name of the monster, damage, objective, if it landed
+     * or not, if it killed the objective or not).
+     * @param dice dice {@link Dice} to roll.
      */
-    private String monsterAttack(List<Monster> monsters, int i, List<CharacterGame> party) {
-        StringBuilder log = new StringBuilder();
+    private void monsterAttack(Monster monster, List<CharacterGame> party, TurnScheduler turns, CombatSink sink,
+                               Dice dice) {
         while (true) {
-            Random random2 = new Random();
-            int index = monsters.get(i).getTarget(party.size());
-            int hit = random2.nextInt(10) + 1;
+            int index = monster.getTarget(party.size(), dice);
+            int hit = dice.roll(10);
 
             if (index == -1) {
-                log = bossAttack(monsters.get(i), party, log, hit);
+                bossAttack(monster, party, hit, sink, dice);
+                turns.updateParty();
                 break;
             }
             else {
                 if (party.get(index).isAlive()) {
-                    log.append("\n").append(monsters.get(i).getName())
-                            .append(" attacks ").append(party.get(index).getName()).append(".\n");
+                    sink.monsterAttacked(monster, party.get(index));
                     if (hit == 1) {
-                        log.append("Fails and deals 0 ").append(monsters.get(i).getDamageType()).append(" damage.\n");
+                        sink.missed(monster.getDamageType());
                     }
                     else if (hit == 10) {
-                        int damage = monsters.get(i).attack(party, index, 2);
-                        log.append("Critical hit and deals ").append(damage).append(" ").append(monsters.get(i).getDamageType()).append(" damage.\n");
+                        int damage = monster.attack(party, index, 2, dice);
+                        sink.criticalHit(damage, monster.getDamageType());
                     }
                     else {
-                        int damage = monsters.get(i).attack(party, index, 1);
-                        log.append("Hits and deals ").append(damage).append(" ").append(monsters.get(i).getDamageType()).append(" damage.\n");
+                        int damage = monster.attack(party, index, 1, dice);
+                        sink.hit(damage, monster.getDamageType());
                     }
                     if (!party.get(index).isAlive()) {
-                        log.append(party.get(index).getName()).append(" falls unconscious.\n");
+                        sink.fellUnconscious(party.get(index));
                     }
+                    turns.update(index);
                     break;
                 }
             }
         }
-        return log.toString();
     }
 
     /**
      * Method with the logic involving the attack of a "boss" monster {@link Monster}.
      * @param monster monster {@link Monster} object containing the monster attacking.
      * @param party list of character {@link CharacterGame} instances containing the characters playing the adventure.
-     * @param log string builder containing the log of the attack.
      * @param hit integer containing the hit value of the monster.
-     * @return a string builder containing the log of the attack.
+     * @param sink sink {@link CombatSink} told about the attack.
+     * @param dice dice {@link Dice} to roll.
      */
-    private StringBuilder bossAttack(Monster monster, List<CharacterGame> party, StringBuilder log, int hit) {
+    private void bossAttack(Monster monster, List<CharacterGame> party, int hit, CombatSink sink, Dice dice) {
         List<Integer> alive = new ArrayList<>();
 
         for (int i = 0; i < party.size(); i++) {
@@ -278,34 +290,27 @@ public class AdventureManager {
             }
         }
 
-        for (int i = 0; i < alive.size(); i++) {
-            if (i == alive.size() - 1 && i == 0) log.append("\n").append(monster.getName()).append(" attacks ").append(party.get(alive.get(i)).getName()).append(".\n");
-            else if (i == alive.size() - 1) log.append(" and ").append(party.get(alive.get(i)).getName()).append(".\n");
-            else if (i == 0) log.append("\n").append(monster.getName()).append(" attacks ").append(party.get(alive.get(i)).getName());
-            else log.append(", ").append(party.get(alive.get(i)).getName());
-        }
-
+        sink.bossAttacked(monster, party);
         int damage = 0;
         if (hit == 1) {
-            log.append("Fails and deals 0 ").append(monster.getDamageType()).append(" damage.\n");
+            sink.missed(monster.getDamageType());
         }
         else if (hit == 10) {
-            damage = monster.attack(party, -1, 2);
-            log.append("Critical hit and deals ").append(damage).append(" ").append(monster.getDamageType()).append(" damage.\n");
+            damage = monster.attack(party, -1, 2, dice);
+            sink.criticalHit(damage, monster.getDamageType());
         }
         else {
-            damage = monster.attack(party, -1, 1);
-            log.append("Hits and deals ").append(damage).append(" ").append(monster.getDamageType()).append(" damage.\n");
+            damage = monster.attack(party, -1, 1, dice);
+            sink.hit(damage, monster.getDamageType());
         }
 
         if (damage != 0) {
             for (int i = 0; i < alive.size(); i++) {
                 if (!party.get(alive.get(i)).isAlive()) {
-                    log.append(party.get(alive.get(i)).getName()).append(" falls unconscious.\n");
+                    sink.fellUnconscious(party.get(alive.get(i)));
                 }
             }
         }
-        return log;
     }
     /**
      * Method with the logic involving the character {@link CharacterGame} attack.
@@ -313,62 +318,69 @@ public class AdventureManager {
      * @param monsters list of monster {@link Monster} instances containing the monsters alive in the
      * encounter{@link Encounter}.
      * @param party list of character {@link CharacterGame} instances containing the characters playing the adventure.
-     * @return a string containing the attack information(name of the monster, damage, objective, if it landed or not,
-     * if it killed the objective or not.
+     * @param turns turn scheduler {@link TurnScheduler} of the combat, told about the characters healed and the
+     * monsters killed.
+     * @param sink sink {@link CombatSink} told about the attack (name of the monster, damage, objective, if it landed
+     * or not, if it killed the objective or not).
+     * @param dice dice {@link Dice} to roll.
      */
-    private String characterAttack(CharacterGame character, List<Monster> monsters, List<CharacterGame> party) {
-        StringBuilder log = new StringBuilder();
-        int index = character.getTarget(monsters, party), hit = new Random().nextInt(10) + 1;
+    private void characterAttack(CharacterGame character, List<Monster> monsters, List<CharacterGame> party,
+                                 TurnScheduler turns, CombatSink sink, Dice dice) {
+        int index = character.getTarget(monsters, party, dice), hit = dice.roll(10);
 
         if (index == -1) {
-            String[] healInfo = character.attack(monsters, index, 1, party);
-            log.append("\n").append(character.getName()).append(" uses ").append(character.getAttackAction()[1])
-                    .append(". Heals ").append(healInfo[0]).append(" hit points to ").append(healInfo[1]).append(".\n");
+            int[] healInfo = character.attack(monsters, index, 1, party, dice);
+            if (healInfo.length > 1) {
+                sink.healed(character, 1, healInfo[0], healInfo[1] == -1 ? null : party.get(healInfo[1]));
+                if (healInfo[1] != -1) {
+                    turns.update(healInfo[1]);
+                }
+            }
+            else {
+                sink.massHealed(character, 1, healInfo[0], party);
+                turns.updateParty();
+            }
         }
         else if (index == -2) {
+            sink.areaAttacked(character, 1, monsters);
             if (hit == 1) {
-                String[] damageInfo = character.attack(monsters, index, 0, party);
-                log.append("\n").append(character.getName()).append(" attacks ").append(damageInfo[1])
-                        .append(" with ").append(character.getAttackAction()[1]).append(".\n");
-                log.append("Fails and deals 0 ").append(character.getAttackType()).append(" damage.\n");
+                character.attack(monsters, index, 0, party, dice);
+                sink.missed(character.getAttackType());
             }
             else if (hit == 10) {
-                String[] damageInfo = character.attack(monsters, index, 2, party);
-                log.append("\n").append(character.getName()).append(" attacks ").append(damageInfo[1])
-                        .append(" with ").append(character.getAttackAction()[1]).append(".\n");
-                log.append("Critical hit and deals ").append(damageInfo[0]).append(" ").append(character.getAttackType()).append(" damage.\n");
+                int[] damageInfo = character.attack(monsters, index, 2, party, dice);
+                sink.criticalHit(damageInfo[0], character.getAttackType());
             }
             else {
-                String[] damageInfo = character.attack(monsters, index, 1, party);
-                log.append("\n").append(character.getName()).append(" attacks ").append(damageInfo[1])
-                        .append(" with ").append(character.getAttackAction()[1]).append(".\n");
-                log.append("Hits and deals ").append(damageInfo[0]).append(" ").append(character.getAttackType()).append(" damage.\n");
+                int[] damageInfo = character.attack(monsters, index, 1, party, dice);
+                sink.hit(damageInfo[0], character.getAttackType());
             }
-            for (int i = 0; i < monsters.size(); i++) {
+            for (int i = 0; i < monsters.size(); ) {
                 if (!monsters.get(i).isAlive()) {
-                    log.append(monsters.get(i).getName()).append(" dies.\n");
-                    monsters.remove(i);
+                    sink.died(monsters.get(i));
+                    turns.monsterDied(monsters.remove(i));
+                }
+                else {
+                    i++;
                 }
             }
         }
         else {
-            log.append("\n").append(character.getName()).append(" attacks ").append(monsters.get(index).getName())
-                    .append(" with ").append(character.getAttackAction()[0]).append(".\n");
+            sink.characterAttacked(character, 0, monsters.get(index));
             if (hit == 1) {
-                log.append("Fails and deals 0 ").append(character.getAttackType()).append(" damage.\n");
+                sink.missed(character.getAttackType());
             } else if (hit == 10) {
-                String[] damage = character.attack(monsters, index, 2, party);
-                log.append("Critical hit and deals ").append(damage[0]).append(" ").append(character.getAttackType()).append(" damage.\n");
+                int[] damage = character.attack(monsters, index, 2, party, dice);
+                sink.criticalHit(damage[0], character.getAttackType());
             } else {
-                String[] damage = character.attack(monsters, index, 1, party);
-                log.append("Hits and deals ").append(damage[0]).append(" ").append(character.getAttackType()).append(" damage.\n");
+                int[] damage = character.attack(monsters, index, 1, party, dice);
+                sink.hit(damage[0], character.getAttackType());
             }
             if (!monsters.get(index).isAlive()) {
-                log.append(monsters.get(index).getName()).append(" dies.\n");
-                monsters.remove(index);
+                sink.died(monsters.get(index));
+                turns.monsterDied(monsters.remove(index));
             }
         }
-        return log.toString();
     }
 
     /**
@@ -379,17 +391,53 @@ public class AdventureManager {
      * @return a string containing all the actions performed during the rest stage and its results.
      */
     public String restStage(List<CharacterGame> party, Encounter encounter) {
+        return restStage(party, em.getEncounterXp(encounter), dice);
+    }
+
+    /**
+     * Method with the logic involving the rest stage, when the experience the encounter awards is already known.
+     * @param party list of character {@link CharacterGame} instances containing the characters playing the adventure.
+     * @param xp integer with the experience points each character {@link CharacterGame} gains.
+     * @param dice dice {@link Dice} to roll.
+     * @return a string containing all the actions performed during the rest stage and its results.
+     */
+    public String restStage(List<CharacterGame> party, int xp, Dice dice) {
         StringBuilder log = new StringBuilder();
-        int xp = em.getEncounterXp(encounter);
+        restStage(party, xp, dice, log);
+        return log.toString();
+    }
+
+    /**
+     * Method with the logic involving the rest stage without keeping a log of it, for the adventures nobody is going
+     * to read, like the simulated ones. The dice are rolled exactly as in {@link #restStage(List, int, Dice)}.
+     * @param party list of character {@link CharacterGame} instances containing the characters playing the adventure.
+     * @param xp integer with the experience points each character {@link CharacterGame} gains.
+     * @param dice dice {@link Dice} to roll.
+     */
+    public void restParty(List<CharacterGame> party, int xp, Dice dice) {
+        restStage(party, xp, dice, null);
+    }
 
+    /**
+     * Method with the logic involving the rest stage, adding the actions performed and their results to a log.
+     * @param party list of character {@link CharacterGame} instances containing the characters playing the adventure.
+     * @param xp integer with the experience points each character {@link CharacterGame} gains.
+     * @param dice dice {@link Dice} to roll.
+     * @param log string builder where the actions are added, null if no log is kept.
+     */
+    private void restStage(List<CharacterGame> party, int xp, Dice dice, StringBuilder log) {
         for (CharacterGame characterGame : party) {
             int level = characterGame.getLevel();
-            log.append(characterGame.getName()).append(" gains ").append(xp).append(" xp. ");
+            if (log != null) {
+                log.append(characterGame.getName()).append(" gains ").append(xp).append(" xp. ");
+            }
             characterGame.addXp(xp);
             characterGame.unbuff(party);
 
             if (characterGame.getLevel() != level) {
-                log.append(characterGame.getName()).append(" levels up. They are now lvl ").append(cm.calculateLevel(characterGame.getXp())).append("!");
+                if (log != null) {
+                    log.append(characterGame.getName()).append(" levels up. They are now lvl ").append(cm.calculateLevel(characterGame.getXp())).append("!");
+                }
                 characterGame.calculateMaxHitPoints(characterGame.getLevel());
                 characterGame.setHitPoints(characterGame.getMaxHitPoints());
 
@@ -400,7 +448,9 @@ public class AdventureManager {
                                 "Warrior");
                         warrior.calculateMaxHitPoints(warrior.getLevel());
                         warrior.setHitPoints(warrior.getMaxHitPoints());
-                        log.append("\n").append(characterGame.getName()).append(" evolves to Warrior!");
+                        if (log != null) {
+                            log.append("\n").append(characterGame.getName()).append(" evolves to Warrior!");
+                        }
                         party.set(party.indexOf(characterGame), warrior);
                     }
                     case "Champion" -> {
@@ -409,7 +459,9 @@ public class AdventureManager {
                                 "Champion");
                         champion.calculateMaxHitPoints(champion.getLevel());
                         champion.setHitPoints(champion.getMaxHitPoints());
-                        log.append("\n").append(characterGame.getName()).append(" evolves to Champion!");
+                        if (log != null) {
+                            log.append("\n").append(characterGame.getName()).append(" evolves to Champion!");
+                        }
                         party.set(party.indexOf(characterGame), champion);
                     }
                     case "Paladin" -> {
@@ -418,24 +470,32 @@ public class AdventureManager {
                                 "Paladin");
                         paladin.calculateMaxHitPoints(paladin.getLevel());
                         paladin.setHitPoints(paladin.getMaxHitPoints());
-                        log.append("\n").append(characterGame.getName()).append(" evolves to Paladin!");
+                        if (log != null) {
+                            log.append("\n").append(characterGame.getName()).append(" evolves to Paladin!");
+                        }
                         party.set(party.indexOf(characterGame), paladin);
                     }
                 }
             }
-            log.append("\n");
+            if (log != null) {
+                log.append("\n");
+            }
         }
 
-        log.append("\n");
+        if (log != null) {
+            log.append("\n");
+        }
 
         for (CharacterGame characterGame : party) {
             if (characterGame.isAlive()) {
-                log.append(characterGame.restAction(party));
+                String action = characterGame.restAction(party, dice);
+                if (log != null) {
+                    log.append(action);
+                }
             }
-            else {
+            else if (log != null) {
                 log.append(characterGame.getName()).append(" is unconscious\n");
             }
         }
-        return log.toString();
     }
 }
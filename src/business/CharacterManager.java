@@ -1,16 +1,18 @@
 package business;
 
+import business.dice.Dice;
+import business.dice.SplittableDice;
 import business.entities.Characters.Adventurer;
 import business.entities.Characters.Cleric;
 import business.entities.Characters.Wizard;
-import persistence.API.APICharacterDAO;
+import persistence.API.SyncedCharacterDAO;
 import persistence.CharacterDAO;
+import persistence.JSON.CachedCharacterDAO;
 import persistence.JSON.JSONCharacterDAO;
 import business.entities.Characters.CharacterGame;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
 /**
  * This class is to manage all the logic regarding an characters{@link CharacterGame}.
@@ -20,29 +22,44 @@ import java.util.Random;
  */
 public class CharacterManager {
     /**
-     * Instance of the JSONCharacterDAO class {@link JSONCharacterDAO} to talk with the persistence layer.
+     * Instance of the CharacterDAO interface {@link CharacterDAO} to talk with the persistence layer. When the json
+     * file is used, it is accessed through a CachedCharacterDAO {@link CachedCharacterDAO} in front of the
+     * JSONCharacterDAO {@link JSONCharacterDAO}, so it is not parsed again on every call.
      */
     private CharacterDAO cDao;
 
+    /**
+     * Dice {@link Dice} rolled to generate the stats of the characters and during the adventures played.
+     */
+    private Dice dice;
+
     /**
      * Constructor to create a character manager.
      */
     public CharacterManager() {
-        this.cDao = new JSONCharacterDAO();
+        this.cDao = new CachedCharacterDAO();
+        this.dice = new SplittableDice();
     }
 
     /**
      * Setter method to set the interface of the characterDAO {@link CharacterDAO} to be used.
+     * The API one works over a local copy of the characters of the API, sending the changes in the background.
      */
     public void setCharacterDAO(int option) {
         if (option == 1) {
-            this.cDao = new JSONCharacterDAO();
+            this.cDao = new CachedCharacterDAO();
         }
         else {
-            this.cDao = new APICharacterDAO();
+            this.cDao = new SyncedCharacterDAO();
         }
     }
 
+    /**
+     * Setter method to set the dice {@link Dice} rolled by this manager.
+     * @param dice dice to be rolled.
+     */
+    public void setDice(Dice dice) {this.dice = dice;}
+
     /**
      * Method to validate if an inputted name is valid or not to be a character{@link CharacterGame} name and make
      * the proper modifications.
@@ -79,14 +96,7 @@ public class CharacterManager {
      * @return true if it is unique, false if it is not.
      */
     public boolean isUniqueName(String name) {
-        List<CharacterGame> characters = new ArrayList<>(cDao.read());
-
-        for (CharacterGame character : characters) {
-            if (character.getName().equals(name)) {
-                return false;
-            }
-        }
-        return true;
+        return cDao.find(name) == null;
     }
 
     /**
@@ -155,7 +165,7 @@ public class CharacterManager {
     public int[] generateStats() {
         int[] randomValues = new int[6];
         for (int i = 0; i < 6; i++) {
-            randomValues[i] = new Random().nextInt(6) + 1;
+            randomValues[i] = dice.roll(6);
         }
         return randomValues;
     }
@@ -190,35 +200,23 @@ public class CharacterManager {
      * @param stats array of integer values representing each stat value(body, mind, spirit).
      */
     public void createCharacter(String name, String player, int level, int[] stats, String classType) {
-        List<CharacterGame> characters = new ArrayList<>(cDao.read());
         CharacterGame character = null;
         switch (classType) {
             case "Adventurer" -> character = new Adventurer(name, player, calculateXp(level), stats[0], stats[1], stats[2], "Adventurer");
             case "Cleric" -> character = new Cleric(name, player, calculateXp(level), stats[0], stats[1], stats[2], "Cleric");
             case "Wizard" -> character = new Wizard(name, player, calculateXp(level), stats[0], stats[1], stats[2], "Wizard");
         }
-        characters.add(character);
-        cDao.write(characters);
+        cDao.addCharacter(character);
     }
 
     /**
      * Method to remove a character {@link CharacterGame} from the character list and persist it.
      * @param characterName string containing the name of the character {@link CharacterGame} to be removed.
-     * @param source integer containing the characters that is going to be deleted.
      */
-    public void deleteCharacter(String characterName, int source) {
-        List<CharacterGame> characters = new ArrayList<>(cDao.read());
-
-        for (int i = 0; i < characters.size(); i++) {
-            if (characters.get(i).getName().equals(characterName)) {
-                if (source == 2) {
-                    cDao.deleteCharacter(characters.get(i));
-                }
-                else if (source == 1) {
-                    characters.remove(i);
-                    cDao.write(characters);
-                }
-            }
+    public void deleteCharacter(String characterName) {
+        CharacterGame character = cDao.find(characterName);
+        if (character != null) {
+            cDao.deleteCharacter(character);
         }
     }
 
@@ -231,33 +229,34 @@ public class CharacterManager {
     }
 
     /**
-     * Method to get all the character {@link CharacterGame} instances owned by the same player.
-     * @param input string containing the name of the player or part of it.
+     * Method to get all the character {@link CharacterGame} instances owned by the same player. If a player is given,
+     * they are sorted by player and then by name.
+     * @param input string containing the name of the player or part of it, empty to get all the characters.
      * @return a lits of the character {@link CharacterGame} instances owned by that player.
      */
     public List<CharacterGame> getCharacters(String input) {
-        List<CharacterGame> characters = new ArrayList<>(cDao.read());
-        List<CharacterGame> adventurers = new ArrayList<>();
-
         if (input.equals("")) {
-            adventurers = characters;
-        } else {
-            for (CharacterGame character : characters) {
-                if (character.getPlayer().equalsIgnoreCase(input) ||
-                        character.getPlayer().toLowerCase().contains(input.toLowerCase())) {
-                    adventurers.add(character);
-                }
-            }
+            return new ArrayList<>(cDao.read());
         }
-
-        return adventurers;
+        return cDao.findByPlayer(input);
     }
 
+    /**
+     * Method to make sure all the changes to the characters {@link CharacterGame} have been persisted.
+     */
+    public void flush() {cDao.flush();}
+
+    /**
+     * Method to start reading the characters {@link CharacterGame} in the background, so the next read does not have
+     * to wait for the whole request.
+     */
+    public void preload() {cDao.preload();}
+
     /**
      * Method to check the number of character {@link CharacterGame} instances stored in the system.
      * @return an integer value representing the number of character {@link CharacterGame} instances it has.
      */
-    public int checkNumCharacters() {return cDao.read().size();}
+    public int checkNumCharacters() {return cDao.count();}
 
     /**
      * Method with the logic regarding the actions each character {@link CharacterGame} instance will do during the
@@ -266,20 +265,51 @@ public class CharacterManager {
      * @return a string containing the action each character{@link CharacterGame} did and its result.
      */
     public String preparationStage(List<CharacterGame> party) {
+        return preparationStage(party, dice);
+    }
+
+    /**
+     * Method with the logic regarding the preparation stage, rolling the given dice.
+     * @param party list of character {@link CharacterGame} instances participating in an adventure.
+     * @param dice dice {@link Dice} to roll.
+     * @return a string containing the action each character{@link CharacterGame} did and its result.
+     */
+    public String preparationStage(List<CharacterGame> party, Dice dice) {
         StringBuilder log = new StringBuilder();
         for (CharacterGame character : party) {
-            log.append(character.preparationAction(party));
+            log.append(character.preparationAction(party, dice));
         }
         return log.toString();
     }
 
+    /**
+     * Method with the logic regarding the preparation stage without keeping a log of it, for the adventures nobody is
+     * going to read, like the simulated ones.
+     * @param party list of character {@link CharacterGame} instances participating in an adventure.
+     * @param dice dice {@link Dice} to roll.
+     */
+    public void prepareParty(List<CharacterGame> party, Dice dice) {
+        for (CharacterGame character : party) {
+            character.preparationAction(party, dice);
+        }
+    }
+
     /**
      * Method to calculate the initiative of each character {@link CharacterGame} of the party.
      * @param party list of character {@link CharacterGame} instances participating in an adventure.
      */
     public void rollInitiative(List<CharacterGame> party) {
+        rollInitiative(party, dice);
+    }
+
+    /**
+     * Method to calculate the initiative of each character {@link CharacterGame} of the party, rolling the given dice.
+     * @param party list of character {@link CharacterGame} instances participating in an adventure.
+     * @param dice dice {@link Dice} to roll.
+     */
+    public void rollInitiative(List<CharacterGame> party, Dice dice) {
         for (CharacterGame characterGame : party) {
-            characterGame.calculateInitiative();
+            characterGame.calculateInitiative(dice);
         }
     }
 
@@ -321,23 +351,8 @@ public class CharacterManager {
      * Method to add the experience points gained after an encounter to each member of the party and update its level
      * if necessary.
      * @param party list of character {@link CharacterGame} instances participating in an adventure.
-     * @param source persistence source where the characters {@link CharacterGame} are stored.
      */
-    public void updateLevel(List<CharacterGame> party, int source) {
-        List<CharacterGame> characters = new ArrayList<>(getCharacters());
-        for (CharacterGame partyMember : party) {
-            for (CharacterGame characterGame : characters) {
-                if (partyMember.getName().equals(characterGame.getName())) {
-                    characters.set(characters.indexOf(characterGame), partyMember);
-                }
-            }
-        }
-        if (source == 1) {
-            cDao.write(characters);
-        } else {
-            for (int i = 0; i < party.size(); i++) {
-                cDao.updateCharacter(party.get(i));
-            }
-        }
+    public void updateLevel(List<CharacterGame> party) {
+        cDao.updateCharacters(party);
     }
 }
@@ -1,14 +1,19 @@
 package business;
 
 
+import business.dice.Dice;
+import business.dice.SplittableDice;
 import business.entities.Encounter;
 import business.entities.Monsters.Monster;
 import org.jetbrains.annotations.NotNull;
-import persistence.API.APIMonsterDAO;
-import persistence.JSON.JSONMonsterDAO;
+import persistence.API.SyncedMonsterDAO;
+import persistence.JSON.MappedMonsterCatalog;
 import persistence.MonsterDAO;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * This class is to manage all the logic regarding an encounter{@link Encounter}.
@@ -18,29 +23,42 @@ import java.util.List;
  */
 public class EncounterManager {
     /**
-     * Instance of the JSONMonsterDAO class {@link JSONMonsterDAO} to talk with the persistence layer.
+     * Instance of the MappedMonsterCatalog class {@link MappedMonsterCatalog} to talk with the persistence layer.
      */
     private MonsterDAO mDao;
 
+    /**
+     * Dice {@link Dice} rolled during the encounters played.
+     */
+    private Dice dice;
+
     /**
      * Constructor to create an encounter manager.
      */
     public EncounterManager() {
-        this.mDao = new JSONMonsterDAO();
+        this.mDao = new MappedMonsterCatalog();
+        this.dice = new SplittableDice();
     }
 
     /**
      * Setter method to set the interface of the monsterDAO {@link MonsterDAO} to be used.
+     * The API one reads a local copy of the monsters of the API, updated in the background.
      */
     public void setMonsterDao(int option) {
         if (option == 1) {
-            this.mDao = new JSONMonsterDAO();
+            this.mDao = new MappedMonsterCatalog();
         }
         else {
-            this.mDao = new APIMonsterDAO();
+            this.mDao = new SyncedMonsterDAO();
         }
     }
 
+    /**
+     * Setter method to set the dice {@link Dice} rolled by this manager.
+     * @param dice dice to be rolled.
+     */
+    public void setDice(Dice dice) {this.dice = dice;}
+
     /**
      * Method to add monster {@link Monster} instances into an encounter.
      * @param encounter {@link Encounter} object containing the encounter the monsters {@link Monster} belong to.
@@ -60,7 +78,7 @@ public class EncounterManager {
             for (int i = 0; i < encounter.getMonsterTypes().size(); i++) {
                 if (encounter.getMonsterTypes().get(i).equals(monster.getName())) {
                     encounter.setAmount(i, amount);
-                    for (int j = 0; j < encounter.getAmount().get(i); j++) {
+                    for (int j = 0; j < amount; j++) {
                         encounter.setMonsters(monster);
                     }
                     return encounter;
@@ -106,6 +124,39 @@ public class EncounterManager {
         return mDao.read();
     }
 
+    /**
+     * Method to start reading the monsters {@link Monster} in the background, so the next read does not have to wait
+     * for the whole request.
+     */
+    public void preload() {
+        mDao.preload();
+    }
+
+    /**
+     * Method to create the monster {@link Monster} instances of each encounter {@link Encounter} from its monster
+     * types and amounts, using the monsters stored in the system. Any monster the encounters had is replaced.
+     * @param encounters list of encounter {@link Encounter} instances to be filled with monsters.
+     */
+    public void createMonsters(List<Encounter> encounters) {
+        Set<String> types = new HashSet<>();
+        for (Encounter encounter : encounters) {
+            types.addAll(encounter.getMonsterTypes());
+        }
+        Map<String, Monster> found = mDao.findAll(types);
+
+        for (Encounter encounter : encounters) {
+            encounter.getMonsters().clear();
+            for (int i = 0; i < encounter.getMonsterTypes().size(); i++) {
+                Monster monster = found.get(encounter.getMonsterTypes().get(i));
+                if (monster != null) {
+                    for (int j = 0; j < encounter.getAmount().get(i); j++) {
+                        encounter.setMonsters(monster.copy());
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Method to remove a monster type{@link Monster} from an encounter {@link Encounter}.
      * @param encounter {@link Encounter} object containing the encounter the monsters {@link Monster} belong to.
@@ -130,8 +181,18 @@ public class EncounterManager {
      * @param encounter {@link Encounter} object containing the encounter the monsters {@link Monster} belong to.
      */
     public void rollInitiative(Encounter encounter) {
+        rollInitiative(encounter, dice);
+    }
+
+    /**
+     * Method to calculate the initiative of each monster {@link Monster} of the encounter {@link Encounter}, rolling
+     * the given dice.
+     * @param encounter {@link Encounter} object containing the encounter the monsters {@link Monster} belong to.
+     * @param dice dice {@link Dice} to roll.
+     */
+    public void rollInitiative(Encounter encounter, Dice dice) {
         for (int i = 0; i < encounter.getMonsters().size(); i++) {
-            encounter.getMonsters().get(i).setInitiative();
+            encounter.getMonsters().get(i).setInitiative(dice);
         }
     }
 
@@ -149,14 +210,13 @@ public class EncounterManager {
      * @return an integer with a value representing the total number of experience points awarded.
      */
     public int getEncounterXp(Encounter encounter) {
-        List<Monster> monsters = loadMonsters();
         int xp = 0;
+        Map<String, Monster> found = mDao.findAll(encounter.getMonsterTypes());
 
         for (int i = 0; i < encounter.getMonsterTypes().size(); i++) {
-            for (Monster monster : monsters) {
-                if (encounter.getMonsterTypes().get(i).equals(monster.getName())) {
-                    xp += encounter.getAmount().get(i) * monster.getExperience();
-                }
+            Monster monster = found.get(encounter.getMonsterTypes().get(i));
+            if (monster != null) {
+                xp += encounter.getAmount().get(i) * monster.getExperience();
             }
         }
         return xp;
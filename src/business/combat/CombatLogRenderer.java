@@ -0,0 +1,204 @@
+package business.combat;
+
+import business.entities.Characters.CharacterGame;
+import business.entities.Monsters.Monster;
+
+import java.util.List;
+
+/**
+ * This class is to write the events of a combat stage as the text shown to the user. It is only used when the
+ * combat is going to be shown, so the combats nobody reads do not build any text.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+public class CombatLogRenderer implements CombatSink {
+    /**
+     * Text of the combat written until now.
+     */
+    private final StringBuilder log = new StringBuilder();
+
+    /**
+     * Method to write the start of a round with the hit points of the party.
+     * @param round integer with the number of the round, starting at 1.
+     * @param party list of character {@link CharacterGame} instances playing the adventure.
+     */
+    @Override
+    public void roundStarted(int round, List<CharacterGame> party) {
+        log.append("\nRound ").append(round).append(":\n").append("Party:\n");
+        for (CharacterGame characterGame : party) {
+            log.append("  - ").append(characterGame.getName()).append("\tHP: ").append(characterGame.getHitPoints())
+                    .append(" / ").append(characterGame.getMaxHitPoints()).append(" hit points");
+            if (characterGame.getShield() > 0) log.append(" (Shield: ").append(characterGame.getShield()).append(")");
+            log.append("\n");
+        }
+    }
+
+    /**
+     * Method to write the attack of a monster to a character.
+     * @param monster monster {@link Monster} attacking.
+     * @param target character {@link CharacterGame} attacked.
+     */
+    @Override
+    public void monsterAttacked(Monster monster, CharacterGame target) {
+        log.append("\n").append(monster.getName()).append(" attacks ").append(target.getName()).append(".\n");
+    }
+
+    /**
+     * Method to write the attack of a boss to the conscious characters of the party.
+     * @param boss monster {@link Monster} attacking.
+     * @param party list of character {@link CharacterGame} instances.
+     */
+    @Override
+    public void bossAttacked(Monster boss, List<CharacterGame> party) {
+        boolean first = true;
+        String last = null;
+        for (CharacterGame characterGame : party) {
+            if (!characterGame.isAlive()) continue;
+
+            if (last != null) {
+                log.append(first ? "\n" + boss.getName() + " attacks " : ", ").append(last);
+                first = false;
+            }
+            last = characterGame.getName();
+        }
+        if (last != null) {
+            log.append(first ? "\n" + boss.getName() + " attacks " : " and ").append(last).append(".\n");
+        }
+    }
+
+    /**
+     * Method to write the attack of a character to a monster.
+     * @param character character {@link CharacterGame} attacking.
+     * @param action integer with the index of the attack action used.
+     * @param target monster {@link Monster} attacked.
+     */
+    @Override
+    public void characterAttacked(CharacterGame character, int action, Monster target) {
+        log.append("\n").append(character.getName()).append(" attacks ").append(target.getName())
+                .append(" with ").append(character.getAttackAction()[action]).append(".\n");
+    }
+
+    /**
+     * Method to write the attack of a character to every monster.
+     * @param character character {@link CharacterGame} attacking.
+     * @param action integer with the index of the attack action used.
+     * @param targets list of monster {@link Monster} instances attacked.
+     */
+    @Override
+    public void areaAttacked(CharacterGame character, int action, List<Monster> targets) {
+        log.append("\n").append(character.getName()).append(" attacks ");
+        for (int i = 0; i < targets.size(); i++) {
+            if (i == 0) log.append(targets.get(i).getName());
+            else if (i == targets.size() - 1) log.append(" and ").append(targets.get(i).getName());
+            else log.append(", ").append(targets.get(i).getName());
+        }
+        log.append(" with ").append(character.getAttackAction()[action]).append(".\n");
+    }
+
+    /**
+     * Method to write the heal of a character to another one.
+     * @param healer character {@link CharacterGame} healing.
+     * @param action integer with the index of the attack action used.
+     * @param amount integer with the hit points healed.
+     * @param target character {@link CharacterGame} healed, null if nobody needed it.
+     */
+    @Override
+    public void healed(CharacterGame healer, int action, int amount, CharacterGame target) {
+        log.append("\n").append(healer.getName()).append(" uses ").append(healer.getAttackAction()[action])
+                .append(". Heals ").append(amount).append(" hit points to ")
+                .append(target == null ? null : target.getName()).append(".\n");
+    }
+
+    /**
+     * Method to write the heal of a character to the whole party.
+     * @param healer character {@link CharacterGame} healing.
+     * @param action integer with the index of the attack action used.
+     * @param amount integer with the hit points healed to each character.
+     * @param party list of character {@link CharacterGame} instances healed.
+     */
+    @Override
+    public void massHealed(CharacterGame healer, int action, int amount, List<CharacterGame> party) {
+        log.append("\n").append(healer.getName()).append(" uses ").append(healer.getAttackAction()[action])
+                .append(". Heals ").append(amount).append(" hit points to ");
+        for (int i = 0; i < party.size(); i++) {
+            if (i == 0) log.append(party.get(i).getName());
+            else if (i == party.size() - 1) log.append(" and ").append(party.get(i).getName());
+            else log.append(", ").append(party.get(i).getName());
+        }
+        log.append(".\n");
+    }
+
+    /**
+     * Method to write a missed attack.
+     * @param damageType string with the type of damage of the attack.
+     */
+    @Override
+    public void missed(String damageType) {
+        log.append("Fails and deals 0 ").append(damageType).append(" damage.\n");
+    }
+
+    /**
+     * Method to write a hit.
+     * @param damage integer with the damage dealt.
+     * @param damageType string with the type of damage of the attack.
+     */
+    @Override
+    public void hit(int damage, String damageType) {
+        log.append("Hits and deals ").append(damage).append(" ").append(damageType).append(" damage.\n");
+    }
+
+    /**
+     * Method to write a critical hit.
+     * @param damage integer with the damage dealt.
+     * @param damageType string with the type of damage of the attack.
+     */
+    @Override
+    public void criticalHit(int damage, String damageType) {
+        log.append("Critical hit and deals ").append(damage).append(" ").append(damageType).append(" damage.\n");
+    }
+
+    /**
+     * Method to write the death of a monster.
+     * @param monster monster {@link Monster} that died.
+     */
+    @Override
+    public void died(Monster monster) {
+        log.append(monster.getName()).append(" dies.\n");
+    }
+
+    /**
+     * Method to write that a character fell unconscious.
+     * @param character character {@link CharacterGame} that fell unconscious.
+     */
+    @Override
+    public void fellUnconscious(CharacterGame character) {
+        log.append(character.getName()).append(" falls unconscious.\n");
+    }
+
+    /**
+     * Method to write the end of a round.
+     * @param round integer with the number of the round.
+     */
+    @Override
+    public void roundEnded(int round) {
+        log.append("\nEnd of round ").append(round).append(".\n");
+    }
+
+    /**
+     * Method to write that the party won the combat.
+     */
+    @Override
+    public void enemiesDefeated() {
+        log.append("All enemies are defeated\n\n");
+    }
+
+    /**
+     * Method to get the text of the combat written until now.
+     * @return a string containing all the actions performed during the combat stage and its results.
+     */
+    @Override
+    public String toString() {
+        return log.toString();
+    }
+}
@@ -0,0 +1,120 @@
+package business.combat;
+
+import business.entities.Characters.CharacterGame;
+import business.entities.Monsters.Monster;
+
+import java.util.List;
+
+/**
+ * Interface for the code that follows what happens during a combat stage. The combat tells it every event (rounds,
+ * attacks, heals, hits and deaths) as it happens, in the same order they are shown to the user. Every method does
+ * nothing by default, so each sink only implements the events it needs.
+ * Events about an attack are told before the damage is dealt, so the entities passed are the ones being attacked.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+public interface CombatSink {
+    /**
+     * Sink that ignores every event, for the combats nobody is going to read.
+     */
+    CombatSink NONE = new CombatSink() {};
+
+    /**
+     * Method called when a round starts.
+     * @param round integer with the number of the round, starting at 1.
+     * @param party list of character {@link CharacterGame} instances playing the adventure.
+     */
+    default void roundStarted(int round, List<CharacterGame> party) {}
+
+    /**
+     * Method called when a monster attacks a single character.
+     * @param monster monster {@link Monster} attacking.
+     * @param target character {@link CharacterGame} attacked.
+     */
+    default void monsterAttacked(Monster monster, CharacterGame target) {}
+
+    /**
+     * Method called when a boss attacks the whole party.
+     * @param boss monster {@link Monster} attacking.
+     * @param party list of character {@link CharacterGame} instances, of which the conscious ones are attacked.
+     */
+    default void bossAttacked(Monster boss, List<CharacterGame> party) {}
+
+    /**
+     * Method called when a character attacks a single monster.
+     * @param character character {@link CharacterGame} attacking.
+     * @param action integer with the index of the attack action {@link CharacterGame#getAttackAction()} used.
+     * @param target monster {@link Monster} attacked.
+     */
+    default void characterAttacked(CharacterGame character, int action, Monster target) {}
+
+    /**
+     * Method called when a character attacks every monster at once.
+     * @param character character {@link CharacterGame} attacking.
+     * @param action integer with the index of the attack action {@link CharacterGame#getAttackAction()} used.
+     * @param targets list of monster {@link Monster} instances attacked.
+     */
+    default void areaAttacked(CharacterGame character, int action, List<Monster> targets) {}
+
+    /**
+     * Method called when a character heals another one.
+     * @param healer character {@link CharacterGame} healing.
+     * @param action integer with the index of the attack action {@link CharacterGame#getAttackAction()} used.
+     * @param amount integer with the hit points healed.
+     * @param target character {@link CharacterGame} healed, null if nobody needed it.
+     */
+    default void healed(CharacterGame healer, int action, int amount, CharacterGame target) {}
+
+    /**
+     * Method called when a character heals the whole party.
+     * @param healer character {@link CharacterGame} healing.
+     * @param action integer with the index of the attack action {@link CharacterGame#getAttackAction()} used.
+     * @param amount integer with the hit points healed to each character.
+     * @param party list of character {@link CharacterGame} instances healed.
+     */
+    default void massHealed(CharacterGame healer, int action, int amount, List<CharacterGame> party) {}
+
+    /**
+     * Method called when the last attack misses.
+     * @param damageType string with the type of damage of the attack.
+     */
+    default void missed(String damageType) {}
+
+    /**
+     * Method called when the last attack hits.
+     * @param damage integer with the damage dealt.
+     * @param damageType string with the type of damage of the attack.
+     */
+    default void hit(int damage, String damageType) {}
+
+    /**
+     * Method called when the last attack is a critical hit.
+     * @param damage integer with the damage dealt.
+     * @param damageType string with the type of damage of the attack.
+     */
+    default void criticalHit(int damage, String damageType) {}
+
+    /**
+     * Method called when a monster dies.
+     * @param monster monster {@link Monster} that died.
+     */
+    default void died(Monster monster) {}
+
+    /**
+     * Method called when a character falls unconscious.
+     * @param character character {@link CharacterGame} that fell unconscious.
+     */
+    default void fellUnconscious(CharacterGame character) {}
+
+    /**
+     * Method called when a round ends.
+     * @param round integer with the number of the round.
+     */
+    default void roundEnded(int round) {}
+
+    /**
+     * Method called when every monster of the encounter has been defeated.
+     */
+    default void enemiesDefeated() {}
+}
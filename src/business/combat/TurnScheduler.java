@@ -0,0 +1,188 @@
+package business.combat;
+
+import business.entities.Characters.CharacterGame;
+import business.entities.Monsters.Monster;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is to keep the order in which the monsters {@link Monster} and characters {@link CharacterGame} of an
+ * encounter take their turns, built once from both lists sorted by initiative. A monster goes before a character only
+ * if its initiative is higher.
+ * The turns are linked to the next one, and the monsters that die are unlinked, so they are skipped without looking
+ * at them. The number of monsters alive and of characters conscious is kept as they change, so checking if the
+ * combat is over does not go through the lists.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+public class TurnScheduler {
+    /**
+     * Value returned instead of a turn when there are no more turns in the round.
+     */
+    public static final int END = -1;
+
+    // list of characters of the party, to get the ones taking the turns.
+    private final List<CharacterGame> party;
+    // monster taking each turn, null if it is taken by a character.
+    private final Monster[] monsters;
+    // index in the party of the character taking each turn, -1 if it is taken by a monster.
+    private final int[] members;
+    // next and previous turns of each one still in the order, END if there is none.
+    private final int[] next;
+    private final int[] previous;
+    // turn of each monster.
+    private final Map<Monster, Integer> turnOf;
+    // characters of the party that are conscious, by their index.
+    private final boolean[] conscious;
+    // first turn of the round.
+    private int first;
+    // number of monsters alive.
+    private int monstersAlive;
+    // number of characters conscious.
+    private int charactersConscious;
+
+    /**
+     * Constructor to build the order of the turns of an encounter.
+     * @param monsters list of monster {@link Monster} instances alive, sorted by initiative.
+     * @param party list of character {@link CharacterGame} instances, sorted by initiative.
+     */
+    public TurnScheduler(List<Monster> monsters, List<CharacterGame> party) {
+        int size = monsters.size() + party.size();
+        this.party = party;
+        this.monsters = new Monster[size];
+        this.members = new int[size];
+        this.next = new int[size];
+        this.previous = new int[size];
+        this.turnOf = new IdentityHashMap<>();
+        this.conscious = new boolean[party.size()];
+
+        int i = 0, j = 0;
+        for (int turn = 0; turn < size; turn++) {
+            if (j == party.size() || (i < monsters.size()
+                    && monsters.get(i).getInitiative() > party.get(j).getInitiative())) {
+                this.monsters[turn] = monsters.get(i);
+                this.members[turn] = -1;
+                turnOf.put(monsters.get(i), turn);
+                i++;
+            }
+            else {
+                this.members[turn] = j;
+                j++;
+            }
+            next[turn] = turn + 1 < size ? turn + 1 : END;
+            previous[turn] = turn - 1;
+        }
+        this.first = size > 0 ? 0 : END;
+        this.monstersAlive = monsters.size();
+        updateParty();
+    }
+
+    /**
+     * Method to get the first turn of a round.
+     * @return an integer with the turn, END if there are no turns.
+     */
+    public int first() {return first;}
+
+    /**
+     * Method to get the turn after another one.
+     * @param turn integer with the turn.
+     * @return an integer with the next turn, END if it was the last one of the round.
+     */
+    public int next(int turn) {return next[turn];}
+
+    /**
+     * Method to get the monster taking a turn.
+     * @param turn integer with the turn.
+     * @return the monster {@link Monster}, null if the turn is taken by a character.
+     */
+    public Monster getMonster(int turn) {return monsters[turn];}
+
+    /**
+     * Method to get the character taking a turn.
+     * @param turn integer with the turn.
+     * @return the character {@link CharacterGame}, null if the turn is taken by a monster.
+     */
+    public CharacterGame getCharacter(int turn) {
+        return members[turn] == -1 ? null : party.get(members[turn]);
+    }
+
+    /**
+     * Method to get the initiative of the monster or character taking a turn.
+     * @param turn integer with the turn.
+     * @return an integer with the initiative.
+     */
+    public int getInitiative(int turn) {
+        return monsters[turn] != null ? monsters[turn].getInitiative() : getCharacter(turn).getInitiative();
+    }
+
+    /**
+     * Method to get the name of the monster or character taking a turn.
+     * @param turn integer with the turn.
+     * @return a string with the name.
+     */
+    public String getName(int turn) {
+        return monsters[turn] != null ? monsters[turn].getName() : getCharacter(turn).getName();
+    }
+
+    /**
+     * Method to check if any monster is alive.
+     * @return true if at least one monster is alive, false if none is.
+     */
+    public boolean monstersAlive() {return monstersAlive != 0;}
+
+    /**
+     * Method to check if any character of the party is conscious.
+     * @return true if at least one character is conscious, false if none is.
+     */
+    public boolean partyIsAlive() {return charactersConscious != 0;}
+
+    /**
+     * Method to check if the combat is over, because one of the sides has been defeated.
+     * @return true if there are no monsters alive or no characters conscious, false otherwise.
+     */
+    public boolean isOver() {return monstersAlive == 0 || charactersConscious == 0;}
+
+    /**
+     * Method to remove a monster that has died from the order, so it does not take any more turns.
+     * @param monster monster {@link Monster} that has died.
+     */
+    public void monsterDied(Monster monster) {
+        Integer turn = turnOf.remove(monster);
+        if (turn == null) return;
+
+        if (previous[turn] == END) {
+            first = next[turn];
+        }
+        else {
+            next[previous[turn]] = next[turn];
+        }
+        if (next[turn] != END) {
+            previous[next[turn]] = previous[turn];
+        }
+        monstersAlive--;
+    }
+
+    /**
+     * Method to update the count of characters conscious after the hit points of a character have changed.
+     * @param member integer with the index of the character in the party.
+     */
+    public void update(int member) {
+        boolean now = party.get(member).isAlive();
+        if (now != conscious[member]) {
+            conscious[member] = now;
+            charactersConscious += now ? 1 : -1;
+        }
+    }
+
+    /**
+     * Method to update the count of characters conscious after the hit points of the whole party have changed.
+     */
+    public void updateParty() {
+        for (int i = 0; i < conscious.length; i++) {
+            update(i);
+        }
+    }
+}
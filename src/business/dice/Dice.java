@@ -0,0 +1,33 @@
+package business.dice;
+
+/**
+ * Interface for the dice rolled by the rules of the game: attacks, heals, initiatives, targets and stats. The rules
+ * are given the dice to roll instead of creating their own, so the same dice can be seeded to repeat a game, and each
+ * thread can be given its own dice.
+ * Implementations do not need to be thread safe: each thread must roll its own dice, got with {@link #split()}.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+public interface Dice {
+    /**
+     * Method to roll a die.
+     * @param sides integer with the number of sides of the die, at least 1.
+     * @return an integer between 1 and the number of sides, both included.
+     */
+    int roll(int sides);
+
+    /**
+     * Method to pick one of some options at random, like the target of an attack.
+     * @param options integer with the number of options, at least 1.
+     * @return an integer with the index of the option picked, between 0 and the number of options minus 1.
+     */
+    int pick(int options);
+
+    /**
+     * Method to get new dice whose rolls are independent of these ones, to be rolled by another thread. If these dice
+     * are seeded, so are the new ones.
+     * @return the new dice.
+     */
+    Dice split();
+}
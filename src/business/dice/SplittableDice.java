@@ -0,0 +1,69 @@
+package business.dice;
+
+import java.util.SplittableRandom;
+
+/**
+ * This class is to roll dice with a SplittableRandom, which does not allocate on each roll nor share any state with
+ * other threads. Created with a seed, it always rolls the same values, and so do the dice split from it.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+public class SplittableDice implements Dice {
+    /**
+     * Generator of the values rolled.
+     */
+    private final SplittableRandom random;
+
+    /**
+     * Constructor to create dice with a random seed.
+     */
+    public SplittableDice() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Constructor to create dice that always roll the same values.
+     * @param seed long with the seed of the values rolled.
+     */
+    public SplittableDice(long seed) {
+        this(new SplittableRandom(seed));
+    }
+
+    /**
+     * Constructor to create dice from a generator.
+     * @param random generator of the values rolled.
+     */
+    private SplittableDice(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Method to roll a die.
+     * @param sides integer with the number of sides of the die, at least 1.
+     * @return an integer between 1 and the number of sides, both included.
+     */
+    @Override
+    public int roll(int sides) {
+        return random.nextInt(sides) + 1;
+    }
+
+    /**
+     * Method to pick one of some options at random.
+     * @param options integer with the number of options, at least 1.
+     * @return an integer with the index of the option picked.
+     */
+    @Override
+    public int pick(int options) {
+        return random.nextInt(options);
+    }
+
+    /**
+     * Method to get new dice whose rolls are independent of these ones.
+     * @return the new dice.
+     */
+    @Override
+    public Dice split() {
+        return new SplittableDice(random.split());
+    }
+}
@@ -1,10 +1,10 @@
 package business.entities.Characters;
 
+import business.dice.Dice;
 import business.entities.Encounter;
 import business.entities.Monsters.Monster;
 
 import java.util.List;
-import java.util.Random;
 
 /**
  * Class to represent the specific behaviour and traits of a Adventurer entity.
@@ -31,12 +31,22 @@ public class Adventurer extends CharacterGame {
         super(name, player, xp, body, mind, spirit, classType);
     }
 
+    /**
+     * Method to create a new adventurer with the same persisted traits as this one.
+     * @return an adventurer instance with the same name, player, experience, stats and class.
+     */
+    public CharacterGame copy() {
+        return new Adventurer(this.getName(), this.getPlayer(), this.getXp(), this.getBody(), this.getMind(), this.getSpirit(),
+                this.getClassType());
+    }
+
     /**
      * Method for the character to execute its action during the preparation stage.
      * @param party list containing the characters of the party.
+     * @param dice dice {@link Dice} to roll.
      * @return a string containing the action performed and its result.
      */
-    public String preparationAction(List<CharacterGame> party) {
+    public String preparationAction(List<CharacterGame> party, Dice dice) {
         this.addToSpirit(1);
         return (this.getName() + " uses Self-Motivated. Their Spirit is increased by +1.\n");
     }
@@ -51,8 +61,9 @@ public class Adventurer extends CharacterGame {
 
     /**
      * Method to initialize the initiative.
+     * @param dice dice {@link Dice} to roll.
      */
-    public void calculateInitiative() {this.setInitiative(((new Random().nextInt(12) + 1) + this.getSpirit()));}
+    public void calculateInitiative(Dice dice) {this.setInitiative((dice.roll(12) + this.getSpirit()));}
 
     /**
      * Method to calculate and set the maximum hit points of the character.
@@ -78,9 +89,10 @@ public class Adventurer extends CharacterGame {
      * Method to get the monster {@link Monster} the character is going to attack.
      * @param monsters list of monster {@link Monster} instances.
      * @param party list of character {@link CharacterGame} instances.
+     * @param dice dice {@link Dice} to roll.
      * @return an integer representing the index the monster {@link Monster} instance which is going to be attacked.
      */
-    public int getTarget(List<Monster> monsters, List<CharacterGame> party) {
+    public int getTarget(List<Monster> monsters, List<CharacterGame> party, Dice dice) {
         int lowestHpMonster = 0;
         for (int i = 1; i < monsters.size(); i++) {
             if (monsters.get(i).getHitPoints() < monsters.get(lowestHpMonster).getHitPoints()) {
@@ -112,24 +124,24 @@ public class Adventurer extends CharacterGame {
      * @param target integer with the index of the monster {@link Monster} instance which is going to be attacked.
      * @param multiplier integer with the multiplier of the attack.
      * @param party list of character {@link CharacterGame} instances.
-     * @return a string array with the number of hit points the attack is going to deal and extra information if needed.
+     * @param dice dice {@link Dice} to roll.
+     * @return an integer array with the number of hit points the attack is going to deal and extra information if needed.
      */
-    public String[] attack(List<Monster> monsters, int target, int multiplier, List<CharacterGame> party) {
-        int damage = multiplier * ((new Random().nextInt(6) + 1) + this.getBody());
+    public int[] attack(List<Monster> monsters, int target, int multiplier, List<CharacterGame> party, Dice dice) {
+        int damage = multiplier * (dice.roll(6) + this.getBody());
         monsters.get(target).takeDamage(damage, this.getAttackType());
 
-        String[] damageInfo = new String[1];
-        damageInfo[0] = Integer.toString(damage);
-        return damageInfo;
+        return new int[]{damage};
     }
 
     /**
      * Method for the character to carry out its action during the rest stage.
      * @param party list containing the characters of the party.
+     * @param dice dice {@link Dice} to roll.
      * @return a string containing the action performed and its result.
      */
-    public String restAction(List<CharacterGame> party) {
-        int heal = new Random().nextInt(8) + 1;
+    public String restAction(List<CharacterGame> party, Dice dice) {
+        int heal = dice.roll(8);
         this.addToHitPoints(heal + this.getMind());
 
         return (this.getName() + " uses Bandage time. Heals " + (heal + this.getMind()) + " hit points.\n");
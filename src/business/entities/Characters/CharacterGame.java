@@ -1,11 +1,11 @@
 package business.entities.Characters;
 
+import business.dice.Dice;
 import business.entities.Monsters.Monster;
 import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
 
 import java.util.List;
-import java.util.Random;
 
 /**
  * Abstract class to represent the general behaviour and traits of a character entity.
@@ -268,12 +268,20 @@ public abstract class CharacterGame {
 
 
 
+    /**
+     * Method to create a new character with the same persisted traits as this one, without any of the values
+     * it gets during an adventure (hit points, initiative, shield, buffs).
+     * @return a character instance of the same class with the same name, player, experience and stats.
+     */
+    public abstract CharacterGame copy();
+
     /**
      * Method for the character to execute its action during the preparation stage.
      * @param party list containing the characters of the party.
+     * @param dice dice {@link Dice} to roll.
      * @return a string containing the action performed and its result.
      */
-    public String preparationAction(List<CharacterGame> party) {
+    public String preparationAction(List<CharacterGame> party, Dice dice) {
         this.spirit += 1;
         return (this.name + " uses Self-Motivated. Their Spirit is increased by +1.\n");
     }
@@ -288,8 +296,9 @@ public abstract class CharacterGame {
 
     /**
      * Method to initialize the initiative.
+     * @param dice dice {@link Dice} to roll.
      */
-    public void calculateInitiative() {this.initiative = ((new Random().nextInt(12) + 1) + this.spirit);}
+    public void calculateInitiative(Dice dice) {this.initiative = (dice.roll(12) + this.spirit);}
 
     /**
      * Method to calculate and set the maximum hit points of the character.
@@ -315,9 +324,10 @@ public abstract class CharacterGame {
      * Method to get the monster {@link Monster} the character is going to attack.
      * @param monsters list of monster {@link Monster} instances.
      * @param party list of character {@link CharacterGame} instances.
+     * @param dice dice {@link Dice} to roll.
      * @return an integer representing the index the monster {@link Monster} instance which is going to be attacked.
      */
-    public int getTarget(List<Monster> monsters, List<CharacterGame> party) {
+    public int getTarget(List<Monster> monsters, List<CharacterGame> party, Dice dice) {
         int lowestHpMonster = 0;
         for (int i = 1; i < monsters.size(); i++) {
             if (monsters.get(i).getHitPoints() < monsters.get(lowestHpMonster).getHitPoints()) {
@@ -349,24 +359,25 @@ public abstract class CharacterGame {
      * @param target integer with the index of the monster {@link Monster} instance which is going to be attacked.
      * @param multiplier integer with the multiplier of the attack.
      * @param party list of character {@link CharacterGame} instances.
-     * @return a string array with the number of hit points the attack is going to deal and extra information if needed.
+     * @param dice dice {@link Dice} to roll.
+     * @return an integer array with the number of hit points the attack is going to deal. When the character heals
+     * instead, the number of hit points healed, followed by the index of the character healed if it heals only one.
      */
-    public String[] attack(List<Monster> monsters, int target, int multiplier, List<CharacterGame> party) {
-        int damage = multiplier * ((new Random().nextInt(6) + 1) + this.body);
+    public int[] attack(List<Monster> monsters, int target, int multiplier, List<CharacterGame> party, Dice dice) {
+        int damage = multiplier * (dice.roll(6) + this.body);
         monsters.get(target).takeDamage(damage, this.getAttackType());
 
-        String[] damageInfo = new String[1];
-        damageInfo[0] = Integer.toString(damage);
-        return damageInfo;
+        return new int[]{damage};
     }
 
     /**
      * Method for the character to carry out its action during the rest stage.
      * @param party list containing the characters of the party.
+     * @param dice dice {@link Dice} to roll.
      * @return a string containing the action performed and its result.
      */
-    public String restAction(List<CharacterGame> party) {
-        int heal = new Random().nextInt(8) + 1;
+    public String restAction(List<CharacterGame> party, Dice dice) {
+        int heal = dice.roll(8);
         this.hitPoints += heal + this.mind;
 
         if(this.hitPoints > this.maxHitPoints) {
@@ -1,9 +1,9 @@
 package business.entities.Characters;
 
+import business.dice.Dice;
 import business.entities.Monsters.Monster;
 
 import java.util.List;
-import java.util.Random;
 
 /**
  * Class to represent the specific behaviour and traits of a Cleric entity.
@@ -28,6 +28,15 @@ public class Cleric extends CharacterGame {
         super(name, player, xp, body, mind, spirit, classType);
     }
 
+    /**
+     * Method to create a new cleric with the same persisted traits as this one.
+     * @return a cleric instance with the same name, player, experience, stats and class.
+     */
+    public CharacterGame copy() {
+        return new Cleric(this.getName(), this.getPlayer(), this.getXp(), this.getBody(), this.getMind(), this.getSpirit(),
+                this.getClassType());
+    }
+
     /**
      * Method to calculate and set the maximum hit points of the character.
      * @param level integer with the level the character is.
@@ -36,15 +45,17 @@ public class Cleric extends CharacterGame {
 
     /**
      * Method to initialize the initiative.
+     * @param dice dice {@link Dice} to roll.
      */
-    public void calculateInitiative() {this.setInitiative(((new Random().nextInt(10) + 1) + this.getSpirit()));}
+    public void calculateInitiative(Dice dice) {this.setInitiative((dice.roll(10) + this.getSpirit()));}
 
     /**
      * Method for the character to execute its action during the preparation stage.
      * @param party list containing the characters of the party.
+     * @param dice dice {@link Dice} to roll.
      * @return a string containing the action performed and its result.
      */
-    public String preparationAction(List<CharacterGame> party) {
+    public String preparationAction(List<CharacterGame> party, Dice dice) {
         for (int i = 0; i < party.size(); i++) {
             party.get(i).addToMind(1);
         }
@@ -66,15 +77,16 @@ public class Cleric extends CharacterGame {
      * Method to get the monster {@link Monster} the character is going to attack.
      * @param monsters list of monster {@link Monster} instances.
      * @param party list of character {@link CharacterGame} instances.
+     * @param dice dice {@link Dice} to roll.
      * @return an integer representing the index the monster {@link Monster} instance which is going to be attacked.
      */
-    public int getTarget(List<Monster> monsters, List<CharacterGame> party) {
+    public int getTarget(List<Monster> monsters, List<CharacterGame> party, Dice dice) {
         for (int i = 1; i < party.size(); i++) {
             if (party.get(i).getHitPoints() < (party.get(i).getMaxHitPoints() / 2)) {
                 return -1;
             }
         }
-        return new Random().nextInt(monsters.size());
+        return dice.pick(monsters.size());
     }
 
     /**
@@ -99,40 +111,40 @@ public class Cleric extends CharacterGame {
      * @param target integer with the index of the monster {@link Monster} instance which is going to be attacked.
      * @param multiplier integer with the multiplier of the attack.
      * @param party list of character {@link CharacterGame} instances.
-     * @return a string array with the number of hit points the attack is going to deal and extra information if needed.
+     * @param dice dice {@link Dice} to roll.
+     * @return an integer array with the number of hit points the attack is going to deal, or the number of hit points
+     * healed and the index of the character healed (-1 if nobody needed it).
      */
-    public String[] attack(List<Monster> monsters, int target, int multiplier, List<CharacterGame> party) {
+    public int[] attack(List<Monster> monsters, int target, int multiplier, List<CharacterGame> party, Dice dice) {
         if (target == -1) {
-            int heal = (new Random().nextInt(10) + 1) + this.getMind();
-            String healInfo[] = new String[2];
-            healInfo[0] = Integer.toString(heal);
+            int heal = dice.roll(10) + this.getMind();
+            int[] healInfo = {heal, -1};
 
             for (int i = 0; i < party.size(); i++) {
                 if (party.get(i).getHitPoints() < (party.get(i).getMaxHitPoints() / 2)) {
                     party.get(i).addToHitPoints(heal);
-                    healInfo[1] = party.get(i).getName();
+                    healInfo[1] = i;
                     break;
                 }
             }
             return healInfo;
         }
         else {
-            int damage = multiplier * ((new Random().nextInt(4) + 1) + this.getSpirit());
+            int damage = multiplier * (dice.roll(4) + this.getSpirit());
             monsters.get(target).takeDamage(damage, this.getAttackType());
 
-            String[] damageInfo = new String[1];
-            damageInfo[0] = Integer.toString(damage);
-            return damageInfo;
+            return new int[]{damage};
         }
     }
 
     /**
      * Method for the character to carry out its action during the rest stage.
      * @param party list containing the characters of the party.
+     * @param dice dice {@link Dice} to roll.
      * @return a string containing the action performed and its result.
      */
-    public String restAction(List<CharacterGame> party) {
-        int heal = (new Random().nextInt(10) + 1) + this.getMind();
+    public String restAction(List<CharacterGame> party, Dice dice) {
+        int heal = dice.roll(10) + this.getMind();
         this.addToHitPoints(heal);
 
         return (this.getName() + " uses Prayer of self-healing. Heals " + (heal) + " hit points.\n");
@@ -1,9 +1,9 @@
 package business.entities.Characters;
 
+import business.dice.Dice;
 import business.entities.Monsters.Monster;
 
 import java.util.List;
-import java.util.Random;
 
 /**
  * Class to represent the specific behaviour and traits of a Wizard entity.
@@ -28,6 +28,15 @@ public class Wizard extends CharacterGame {
         super(name, player, xp, body, mind, spirit, classType);
     }
 
+    /**
+     * Method to create a new wizard with the same persisted traits as this one.
+     * @return a wizard instance with the same name, player, experience, stats and class.
+     */
+    public CharacterGame copy() {
+        return new Wizard(this.getName(), this.getPlayer(), this.getXp(), this.getBody(), this.getMind(), this.getSpirit(),
+                this.getClassType());
+    }
+
     /**
      * Method to calculate and set the maximum hit points of the character.
      * @param level integer with the level the character is.
@@ -36,16 +45,18 @@ public class Wizard extends CharacterGame {
 
     /**
      * Method to initialize the initiative.
+     * @param dice dice {@link Dice} to roll.
      */
-    public void calculateInitiative() {this.setInitiative(((new Random().nextInt(20) + 1) + this.getMind()));}
+    public void calculateInitiative(Dice dice) {this.setInitiative((dice.roll(20) + this.getMind()));}
 
     /**
      * Method for the character to execute its action during the preparation stage.
      * @param party list containing the characters of the party.
+     * @param dice dice {@link Dice} to roll.
      * @return a string containing the action performed and its result.
      */
-    public String preparationAction(List<CharacterGame> party) {
-        int shield = this.getLevel() * ((new Random().nextInt(6) + 1) + this.getMind());
+    public String preparationAction(List<CharacterGame> party, Dice dice) {
+        int shield = this.getLevel() * (dice.roll(6) + this.getMind());
         this.setShield(shield);
 
         return (this.getName() + " uses Mage shield. Shield recharges to " + this.getShield() + ".\n");
@@ -63,9 +74,10 @@ public class Wizard extends CharacterGame {
      * Method to get the monster {@link Monster} the character is going to attack.
      * @param monsters list of monster {@link Monster} instances.
      * @param party list of character {@link CharacterGame} instances.
+     * @param dice dice {@link Dice} to roll.
      * @return an integer representing the index the monster {@link Monster} instance which is going to be attacked.
      */
-    public int getTarget(List<Monster> monsters, List<CharacterGame> party) {
+    public int getTarget(List<Monster> monsters, List<CharacterGame> party, Dice dice) {
         if (monsters.size() >= 3) return -2;
         else {
             int highestHpMonster = 0;
@@ -100,48 +112,32 @@ public class Wizard extends CharacterGame {
      * @param target integer with the index of the monster {@link Monster} instance which is going to be attacked.
      * @param multiplier integer with the multiplier of the attack.
      * @param party list of character {@link CharacterGame} instances.
-     * @return a string array with the number of hit points the attack is going to deal and extra information if needed.
+     * @param dice dice {@link Dice} to roll.
+     * @return an integer array with the number of hit points the attack is going to deal and extra information if needed.
      */
-    public String[] attack(List<Monster> monsters, int target, int multiplier, List<CharacterGame> party) {
+    public int[] attack(List<Monster> monsters, int target, int multiplier, List<CharacterGame> party, Dice dice) {
         if (target == -2) {
-            int damage = multiplier * ((new Random().nextInt(4) + 1) + this.getMind());
-            String damageInfo[] = new String[2];
-            damageInfo[0] = Integer.toString(damage);
-            StringBuilder enemyNames = new StringBuilder();
-
+            int damage = multiplier * (dice.roll(4) + this.getMind());
             for (int i = 0; i < monsters.size(); i++) {
                 monsters.get(i).takeDamage(damage, this.getAttackType());
-
-                if (i == 0) {
-                    enemyNames.append(monsters.get(i).getName());
-                }
-                else if (i == monsters.size() - 1) {
-                    enemyNames.append(" and ").append(monsters.get(i).getName());
-                }
-                else {
-                    enemyNames.append(", ").append(monsters.get(i).getName());
-                }
             }
-
-            damageInfo[1] = enemyNames.toString();
-            return damageInfo;
+            return new int[]{damage};
         }
         else {
-            int damage = multiplier * ((new Random().nextInt(6) + 1) + this.getMind());
+            int damage = multiplier * (dice.roll(6) + this.getMind());
             monsters.get(target).takeDamage(damage, this.getAttackType());
 
-            String[] damageInfo = new String[1];
-            damageInfo[0] = Integer.toString(damage);
-            return damageInfo;
+            return new int[]{damage};
         }
     }
 
     /**
      * Method for the character to carry out its action during the rest stage.
      * @param party list containing the characters of the party.
+     * @param dice dice {@link Dice} to roll.
      * @return a string containing the action performed and its result.
      */
-    public String restAction(List<CharacterGame> party) {
+    public String restAction(List<CharacterGame> party, Dice dice) {
         return (this.getName() + " is reading a book.\n");
     }
 
@@ -86,7 +86,7 @@ public class Encounter {
      * @param addAmount integer containing the amount of monsters to be added.
      */
     public void setAmount(int index, int addAmount) {
-        this.amount.add(index, this.getAmount().get(index) + addAmount);
+        this.amount.set(index, this.getAmount().get(index) + addAmount);
     }
 
     /**
@@ -1,9 +1,9 @@
 package business.entities.Monsters;
 
+import business.dice.Dice;
 import business.entities.Characters.CharacterGame;
 
 import java.util.List;
-import java.util.Random;
 
 /**
  * Class to represent a Boss monster entity.
@@ -27,13 +27,24 @@ public class Boss extends Monster {
         super(name, challenge, experience, hitPoints, initiative, damageDice, damageType);
     }
 
+    /**
+     * Method to create a new boss with the same traits this one has.
+     * @return a boss instance with the same name, challenge, experience, hit points, initiative and damage.
+     */
+    @Override
+    public Monster copy() {
+        return new Boss(getName(), getChallenge(), getExperience(), getHitPoints(), getInitiative(), getDamageDice(),
+                getDamageType());
+    }
+
     /**
      * Method to get the target the monster is going to attack.
      * @param num integer containing the number of characters in the party.
+     * @param dice dice {@link Dice} to roll.
      * @return integer containing the index of the character that is going to be attacked.
      */
     @Override
-    public int getTarget(int num) {
+    public int getTarget(int num, Dice dice) {
         return -1;
     }
 
@@ -61,11 +72,12 @@ public class Boss extends Monster {
      * @param characters list containing the characters in the party.
      * @param target integer containing the index of the character that is going to be attacked.
      * @param multiplier integer containing the multiplier of the damage.
+     * @param dice dice {@link Dice} to roll.
      * @return integer containing the number of hit points it will deal.
      */
     @Override
-    public int attack(List<CharacterGame> characters, int target, int multiplier) {
-        int damage = multiplier * (new Random().nextInt(Integer.parseInt(this.getDamageDice().substring(1))) + 1);
+    public int attack(List<CharacterGame> characters, int target, int multiplier, Dice dice) {
+        int damage = multiplier * dice.roll(Integer.parseInt(this.getDamageDice().substring(1)));
 
         for (int i = 0; i < characters.size(); i++) {
             if (characters.get(i).isAlive()) {
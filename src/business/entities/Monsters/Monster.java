@@ -1,9 +1,9 @@
 package business.entities.Monsters;
 
+import business.dice.Dice;
 import business.entities.Characters.CharacterGame;
 
 import java.util.List;
-import java.util.Random;
 
 /**
  * Class to represent a monster entity.
@@ -49,6 +49,14 @@ public class Monster {
         this.damageType = damageType;
     }
 
+    /**
+     * Method to create a new monster with the same traits this one has.
+     * @return a monster instance with the same name, challenge, experience, hit points, initiative and damage.
+     */
+    public Monster copy() {
+        return new Monster(name, challenge, experience, hitPoints, initiative, damageDice, damageType);
+    }
+
     /**
      * Method to get the name of the monster.
      * @return string containing the name.
@@ -98,8 +106,9 @@ public class Monster {
 
     /**
      * Method to calculate the initiative value of the monster
+     * @param dice dice {@link Dice} to roll.
      */
-    public void setInitiative() {this.initiative += (new Random().nextInt(12) + 1);}
+    public void setInitiative(Dice dice) {this.initiative += dice.roll(12);}
 
     /**
      * Method to get the dice that has to be thrown to calculate the damage.
@@ -112,12 +121,11 @@ public class Monster {
     /**
      * Method to get the target the monster is going to attack.
      * @param num integer containing the number of characters in the party.
+     * @param dice dice {@link Dice} to roll.
      * @return integer containing the index of the character that is going to be attacked.
      */
-    public int getTarget(int num) {
-        Random random1 = new Random();
-
-        return random1.nextInt(num);
+    public int getTarget(int num, Dice dice) {
+        return dice.pick(num);
     }
 
 
@@ -134,10 +142,11 @@ public class Monster {
      * @param characters list containing the characters in the party.
      * @param target integer containing the index of the character that is going to be attacked.
      * @param multiplier integer containing the multiplier of the damage.
+     * @param dice dice {@link Dice} to roll.
      * @return integer containing the number of hit points it will deal.
      */
-    public int attack(List<CharacterGame> characters, int target, int multiplier) {
-        int damage = multiplier * (new Random().nextInt(Integer.parseInt(this.damageDice.substring(1))) + 1);
+    public int attack(List<CharacterGame> characters, int target, int multiplier, Dice dice) {
+        int damage = multiplier * dice.roll(Integer.parseInt(this.damageDice.substring(1)));
         characters.get(target).takeDamage(damage, this.damageType);
 
         return damage;
@@ -0,0 +1,327 @@
+package business.simulation;
+
+import business.AdventureManager;
+import business.CharacterManager;
+import business.EncounterManager;
+import business.dice.Dice;
+import business.dice.SplittableDice;
+import business.entities.Adventure;
+import business.entities.Characters.CharacterGame;
+import business.entities.Encounter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class is to estimate how an adventure {@link Adventure} goes for a party by simulating many playthroughs of
+ * it, going through the same stages as when it is played (preparation, initiative, combat and rest on each
+ * encounter). The playthroughs are split between all the cores with fork/join, and each one is played with its own
+ * copies of the characters, so the adventure and the characters given are never modified. The combats are played in
+ * a combat kernel {@link CombatKernel} of each task, which does not create any object while they are fought.
+ * Each task rolls its own dice {@link Dice}, split from the dice of the task that created it, so a simulation with a
+ * seed always gives the same results, no matter how the tasks are run.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+public class AdventureSimulator {
+    /**
+     * Maximum number of playthroughs simulated by a task without splitting it.
+     */
+    private static final int RUNS_PER_TASK = 32;
+
+    /**
+     * Value of the standard normal distribution for a 95% confidence interval.
+     */
+    private static final double Z = 1.96;
+
+    /**
+     * Instance of the adventure manager class {@link AdventureManager} with the logic of the rest stage.
+     */
+    private final AdventureManager am;
+
+    /**
+     * Instance of the character manager class {@link CharacterManager} with the logic regarding the party.
+     */
+    private final CharacterManager cm;
+
+    /**
+     * Instance of the encounter manager class {@link EncounterManager} to create the monsters of the encounters.
+     */
+    private final EncounterManager em;
+
+    /**
+     * Class to add up the results of some playthroughs.
+     */
+    private static final class Tally {
+        // number of playthroughs.
+        private int runs;
+        // number of playthroughs the party completed the adventure.
+        private int wins;
+        // number of playthroughs each character ended conscious, in the order of the party.
+        private final int[] survived;
+        // sum of the combat rounds of each playthrough.
+        private long rounds;
+        // sum of the squares of the combat rounds of each playthrough.
+        private long roundsSquared;
+        // sum of the experience points gained in each playthrough.
+        private long xp;
+        // sum of the squares of the experience points gained in each playthrough.
+        private long xpSquared;
+
+        /**
+         * Constructor to create an empty tally.
+         * @param partySize integer with the number of characters of the party.
+         */
+        private Tally(int partySize) {
+            this.survived = new int[partySize];
+        }
+
+        /**
+         * Method to add the results of other playthroughs to this tally.
+         * @param other tally with the results to be added.
+         * @return this tally.
+         */
+        private Tally add(Tally other) {
+            runs += other.runs;
+            wins += other.wins;
+            for (int i = 0; i < survived.length; i++) {
+                survived[i] += other.survived[i];
+            }
+            rounds += other.rounds;
+            roundsSquared += other.roundsSquared;
+            xp += other.xp;
+            xpSquared += other.xpSquared;
+            return this;
+        }
+    }
+
+    /**
+     * Class to represent an adventure ready to be simulated: the monsters of each encounter, created once and loaded
+     * into the combat kernel {@link CombatKernel} for each playthrough, and the experience points each encounter
+     * awards.
+     */
+    private final class Scenario {
+        // party as it was given.
+        private final List<CharacterGame> party;
+        // position of each character in the party, by its name.
+        private final Map<String, Integer> positions;
+        // encounters of the adventure with their monsters.
+        private final List<Encounter> encounters;
+        // experience points each encounter awards.
+        private final int[] encounterXp;
+
+        /**
+         * Constructor to prepare an adventure to be simulated.
+         * @param adventure adventure {@link Adventure} to be simulated.
+         * @param party list of character {@link CharacterGame} instances going through the adventure.
+         */
+        private Scenario(Adventure adventure, List<CharacterGame> party) {
+            this.party = new ArrayList<>(party);
+            this.positions = new HashMap<>();
+            for (int i = 0; i < party.size(); i++) {
+                positions.put(party.get(i).getName(), i);
+            }
+
+            this.encounters = new ArrayList<>();
+            for (int i = 0; i < adventure.getNumEncounters(); i++) {
+                Encounter encounter = adventure.getEncounters().get(i);
+                encounters.add(new Encounter(new ArrayList<>(encounter.getMonsterTypes()),
+                        new ArrayList<>(encounter.getAmount()), new ArrayList<>()));
+            }
+            em.createMonsters(encounters);
+
+            this.encounterXp = new int[encounters.size()];
+            for (int i = 0; i < encounters.size(); i++) {
+                encounterXp[i] = em.getEncounterXp(encounters.get(i));
+            }
+        }
+
+        /**
+         * Method to simulate a playthrough of the adventure with copies of the party, adding its results to a tally.
+         * @param tally tally where the results are added.
+         * @param dice dice {@link Dice} to roll.
+         * @param kernel kernel {@link CombatKernel} where the combats are played.
+         */
+        private void play(Tally tally, Dice dice, CombatKernel kernel) {
+            List<CharacterGame> members = new ArrayList<>();
+            for (CharacterGame character : party) {
+                members.add(character.copy());
+            }
+            cm.initializeHitPoints(members);
+
+            int rounds = 0;
+            int xp = 0;
+            boolean won = true;
+            for (int i = 0; i < encounters.size(); i++) {
+                cm.prepareParty(members, dice);
+                kernel.rollMonsters(encounters.get(i), dice);
+                cm.rollInitiative(members, dice);
+                cm.sortInitiative(members);
+                kernel.loadParty(members);
+                rounds += kernel.fight(dice);
+                kernel.storeParty(members);
+
+                if (!kernel.partyIsAlive()) {
+                    won = false;
+                    break;
+                }
+                am.restParty(members, encounterXp[i], dice);
+                xp += encounterXp[i];
+            }
+
+            tally.runs++;
+            if (won) tally.wins++;
+            for (CharacterGame member : members) {
+                if (member.isAlive()) tally.survived[positions.get(member.getName())]++;
+            }
+            tally.rounds += rounds;
+            tally.roundsSquared += (long) rounds * rounds;
+            tally.xp += xp;
+            tally.xpSquared += (long) xp * xp;
+        }
+    }
+
+    /**
+     * Task to simulate a range of the playthroughs, split in two halves until they are small enough.
+     */
+    private static final class PlayTask extends RecursiveTask<Tally> {
+        private static final long serialVersionUID = 1L;
+
+        // adventure being simulated.
+        private final Scenario scenario;
+        // number of playthroughs to simulate.
+        private final int runs;
+        // dice rolled by this task.
+        private final Dice dice;
+
+        /**
+         * Constructor to create a task.
+         * @param scenario adventure being simulated.
+         * @param runs integer with the number of playthroughs to simulate.
+         * @param dice dice {@link Dice} rolled by the task, not shared with any other task.
+         */
+        private PlayTask(Scenario scenario, int runs, Dice dice) {
+            this.scenario = scenario;
+            this.runs = runs;
+            this.dice = dice;
+        }
+
+        /**
+         * Method to simulate the playthroughs of the task.
+         * @return a tally with their results.
+         */
+        @Override
+        protected Tally compute() {
+            if (runs <= RUNS_PER_TASK) {
+                Tally tally = new Tally(scenario.party.size());
+                CombatKernel kernel = new CombatKernel();
+                for (int i = 0; i < runs; i++) {
+                    scenario.play(tally, dice, kernel);
+                }
+                return tally;
+            }
+
+            PlayTask first = new PlayTask(scenario, runs / 2, dice.split());
+            PlayTask second = new PlayTask(scenario, runs - runs / 2, dice);
+            first.fork();
+            return second.compute().add(first.join());
+        }
+    }
+
+    /**
+     * Constructor to create an adventure simulator.
+     * @param am adventure manager {@link AdventureManager} with the logic of the rest stage.
+     * @param cm character manager {@link CharacterManager} with the logic regarding the party.
+     * @param em encounter manager {@link EncounterManager} to create the monsters of the encounters.
+     */
+    public AdventureSimulator(AdventureManager am, CharacterManager cm, EncounterManager em) {
+        this.am = am;
+        this.cm = cm;
+        this.em = em;
+    }
+
+    /**
+     * Method to simulate many playthroughs of an adventure {@link Adventure} with a party, in parallel. Neither the
+     * adventure nor the characters given are modified.
+     * @param adventure adventure {@link Adventure} to be simulated.
+     * @param party list of character {@link CharacterGame} instances going through the adventure, with different
+     * names.
+     * @param runs integer with the number of playthroughs to simulate.
+     * @return the results {@link SimulationResult} of the playthroughs.
+     */
+    public SimulationResult simulate(Adventure adventure, List<CharacterGame> party, int runs) {
+        return simulate(adventure, party, runs, new SplittableDice());
+    }
+
+    /**
+     * Method to simulate many playthroughs of an adventure {@link Adventure} with a party, in parallel, always giving
+     * the same results for the same seed.
+     * @param adventure adventure {@link Adventure} to be simulated.
+     * @param party list of character {@link CharacterGame} instances going through the adventure, with different
+     * names.
+     * @param runs integer with the number of playthroughs to simulate.
+     * @param seed long with the seed of the dice rolled.
+     * @return the results {@link SimulationResult} of the playthroughs.
+     */
+    public SimulationResult simulate(Adventure adventure, List<CharacterGame> party, int runs, long seed) {
+        return simulate(adventure, party, runs, new SplittableDice(seed));
+    }
+
+    /**
+     * Method to simulate many playthroughs of an adventure {@link Adventure} with a party, in parallel.
+     * @param adventure adventure {@link Adventure} to be simulated.
+     * @param party list of character {@link CharacterGame} instances going through the adventure.
+     * @param runs integer with the number of playthroughs to simulate.
+     * @param dice dice {@link Dice} from which the dice of every task are split.
+     * @return the results {@link SimulationResult} of the playthroughs.
+     */
+    private SimulationResult simulate(Adventure adventure, List<CharacterGame> party, int runs, Dice dice) {
+        if (runs < 1) {
+            throw new IllegalArgumentException("At least one playthrough has to be simulated");
+        }
+
+        Scenario scenario = new Scenario(adventure, party);
+        Tally tally = ForkJoinPool.commonPool().invoke(new PlayTask(scenario, runs, dice));
+
+        Map<String, SimulationResult.Estimate> survival = new LinkedHashMap<>();
+        for (int i = 0; i < party.size(); i++) {
+            survival.put(party.get(i).getName(), proportion(tally.survived[i], tally.runs));
+        }
+        return new SimulationResult(tally.runs, proportion(tally.wins, tally.runs), survival,
+                mean(tally.rounds, tally.roundsSquared, tally.runs), mean(tally.xp, tally.xpSquared, tally.runs));
+    }
+
+    /**
+     * Method to estimate a ratio with its Wilson score interval, which is still valid when it is close to 0 or 1.
+     * @param successes integer with the number of playthroughs in which it happened.
+     * @param runs integer with the number of playthroughs.
+     * @return the estimate of the ratio.
+     */
+    private static SimulationResult.Estimate proportion(int successes, int runs) {
+        double p = (double) successes / runs;
+        double z2 = Z * Z / runs;
+        double center = (p + z2 / 2) / (1 + z2);
+        double margin = Z * Math.sqrt(p * (1 - p) / runs + z2 / (4 * runs)) / (1 + z2);
+        return new SimulationResult.Estimate(p, Math.max(0, center - margin), Math.min(1, center + margin));
+    }
+
+    /**
+     * Method to estimate an average with its normal confidence interval.
+     * @param sum long with the sum of the values of each playthrough.
+     * @param sumSquared long with the sum of the squares of the values of each playthrough.
+     * @param runs integer with the number of playthroughs.
+     * @return the estimate of the average.
+     */
+    private static SimulationResult.Estimate mean(long sum, long sumSquared, int runs) {
+        double mean = (double) sum / runs;
+        double variance = runs < 2 ? 0 : Math.max(0, (sumSquared - sum * mean) / (runs - 1));
+        double margin = Z * Math.sqrt(variance / runs);
+        return new SimulationResult.Estimate(mean, mean - margin, mean + margin);
+    }
+}
@@ -0,0 +1,490 @@
+package business.simulation;
+
+import business.AdventureManager;
+import business.combat.TurnScheduler;
+import business.dice.Dice;
+import business.entities.Characters.Adventurer;
+import business.entities.Characters.Champion;
+import business.entities.Characters.CharacterGame;
+import business.entities.Characters.Cleric;
+import business.entities.Characters.Paladin;
+import business.entities.Characters.Warrior;
+import business.entities.Characters.Wizard;
+import business.entities.Encounter;
+import business.entities.Monsters.Boss;
+import business.entities.Monsters.Monster;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class is to play combat stages for the simulations without creating any object while they are fought. The
+ * monsters {@link Monster} and characters {@link CharacterGame} are copied into arrays of primitives, one per trait,
+ * and the combat is played over them following the same rules as {@link AdventureManager#combatStage}, rolling the
+ * dice in the same order, so the same dice give the same combat. Like {@link TurnScheduler}, the order of the turns
+ * is built once per combat and the monsters that die are unlinked from it.
+ * The arrays are reused from one combat to the next, so each thread must have its own kernel.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+public final class CombatKernel {
+    // Damage types, compared as numbers instead of strings.
+    private static final int OTHER = 0;
+    private static final int PHYSICAL = 1;
+    private static final int MAGICAL = 2;
+    private static final int PSYCHICAL = 3;
+
+    // Classes of characters, by how they fight.
+    private static final int ADVENTURER = 0;
+    private static final int WARRIOR = 1;
+    private static final int CLERIC = 2;
+    private static final int PALADIN = 3;
+    private static final int WIZARD = 4;
+
+    // Value of the turns after the last one.
+    private static final int END = TurnScheduler.END;
+
+    // Traits of the monsters of the combat, by the order they were loaded in.
+    private int[] monsterHp = new int[8];
+    private int[] monsterInitiative = new int[8];
+    private int[] monsterDie = new int[8];
+    private int[] monsterType = new int[8];
+    private boolean[] boss = new boolean[8];
+
+    // Number of monsters alive, and the monsters alive in the order of the list of the encounter, to be targeted.
+    private int monsters;
+    private int[] alive = new int[8];
+
+    // Number of characters of the party, and their traits, in the order they attack.
+    private int characters;
+    private int[] kind = new int[5];
+    private int[] hp = new int[5];
+    private int[] maxHp = new int[5];
+    private int[] shield = new int[5];
+    private int[] body = new int[5];
+    private int[] mind = new int[5];
+    private int[] spirit = new int[5];
+    private int[] level = new int[5];
+    private int[] initiative = new int[5];
+    // Number of characters conscious.
+    private int conscious;
+
+    // Order of the turns: the monster taking each one, or the complement (~) of the character, and the next and
+    // previous turns still in the order. The turn of each monster, to unlink it when it dies.
+    private int first;
+    private int[] turn = new int[13];
+    private int[] next = new int[13];
+    private int[] previous = new int[13];
+    private int[] turnOf = new int[8];
+
+    /**
+     * Method to copy the monsters of an encounter into the kernel, with the initiative they already have.
+     * @param encounter encounter {@link Encounter} with the monsters, sorted in the order they attack.
+     */
+    public void loadMonsters(Encounter encounter) {
+        List<Monster> list = encounter.getMonsters();
+        ensureMonsters(list.size());
+        monsters = list.size();
+        for (int i = 0; i < monsters; i++) {
+            loadMonster(i, list.get(i), list.get(i).getInitiative());
+            alive[i] = i;
+        }
+    }
+
+    /**
+     * Method to copy the monsters of an encounter into the kernel rolling their initiative and sorting them, like
+     * {@link business.EncounterManager#rollInitiative} and {@link business.EncounterManager#sortInitiative} would,
+     * but without modifying the monsters of the encounter.
+     * @param encounter encounter {@link Encounter} with the monsters, with the initiative they have before rolling.
+     * @param dice dice {@link Dice} to roll.
+     */
+    public void rollMonsters(Encounter encounter, Dice dice) {
+        List<Monster> list = encounter.getMonsters();
+        ensureMonsters(list.size());
+        monsters = 0;
+        for (Monster monster : list) {
+            int id = monsters++;
+            loadMonster(id, monster, monster.getInitiative() + dice.roll(12));
+            // Insertion sort, stable like the sort of the list
+            int i = id;
+            while (i > 0 && monsterInitiative[alive[i - 1]] < monsterInitiative[id]) {
+                alive[i] = alive[i - 1];
+                i--;
+            }
+            alive[i] = id;
+        }
+    }
+
+    /**
+     * Method to copy the characters of the party into the kernel.
+     * @param party list of character {@link CharacterGame} instances, sorted in the order they attack.
+     */
+    public void loadParty(List<CharacterGame> party) {
+        ensureCharacters(party.size());
+        characters = party.size();
+        conscious = 0;
+        for (int i = 0; i < characters; i++) {
+            CharacterGame character = party.get(i);
+            kind[i] = kindOf(character);
+            hp[i] = character.getHitPoints();
+            maxHp[i] = character.getMaxHitPoints();
+            shield[i] = character.getShield();
+            body[i] = character.getBody();
+            mind[i] = character.getMind();
+            spirit[i] = character.getSpirit();
+            level[i] = character.getLevel();
+            initiative[i] = character.getInitiative();
+            if (hp[i] > 0) conscious++;
+        }
+    }
+
+    /**
+     * Method to copy the hit points and shield the characters ended the combat with back to them.
+     * @param party list of character {@link CharacterGame} instances, in the same order they were loaded.
+     */
+    public void storeParty(List<CharacterGame> party) {
+        for (int i = 0; i < characters; i++) {
+            party.get(i).setHitPoints(hp[i]);
+            party.get(i).setShield(shield[i]);
+        }
+    }
+
+    /**
+     * Method to check if any character of the party is conscious.
+     * @return true if at least one character is conscious, false if none is.
+     */
+    public boolean partyIsAlive() {return conscious != 0;}
+
+    /**
+     * Method to get the number of monsters left in the combat.
+     * @return an integer with the number of monsters.
+     */
+    public int getMonsters() {return monsters;}
+
+    /**
+     * Method to play the combat stage between the monsters and the party loaded, until one of them is defeated.
+     * @param dice dice {@link Dice} to roll.
+     * @return an integer with the number of rounds played.
+     */
+    public int fight(Dice dice) {
+        schedule();
+        int rounds = 0;
+        while (monsters != 0 && conscious != 0) {
+            rounds++;
+            for (int t = first; t != END && monsters != 0 && conscious != 0; t = next[t]) {
+                if (turn[t] >= 0) {
+                    monsterAttack(turn[t], dice);
+                } else if (hp[~turn[t]] > 0) {
+                    characterAttack(~turn[t], dice);
+                }
+            }
+        }
+        return rounds;
+    }
+
+    /**
+     * Method to build the order of the turns, like {@link TurnScheduler}.
+     */
+    private void schedule() {
+        int size = monsters + characters;
+        if (size > turn.length) {
+            turn = new int[size];
+            next = new int[size];
+            previous = new int[size];
+        }
+        int i = 0, j = 0;
+        for (int t = 0; t < size; t++) {
+            if (j == characters || (i < monsters && monsterInitiative[alive[i]] > initiative[j])) {
+                turn[t] = alive[i];
+                turnOf[alive[i]] = t;
+                i++;
+            } else {
+                turn[t] = ~j;
+                j++;
+            }
+            next[t] = t + 1 < size ? t + 1 : END;
+            previous[t] = t - 1;
+        }
+        first = size > 0 ? 0 : END;
+    }
+
+    /**
+     * Method with the attack of a monster, like {@link Monster#attack} and {@link Boss#attack}.
+     * @param m integer with the monster attacking.
+     * @param dice dice {@link Dice} to roll.
+     */
+    private void monsterAttack(int m, Dice dice) {
+        while (true) {
+            int target = boss[m] ? -1 : dice.pick(characters);
+            int hit = dice.roll(10);
+
+            if (target == -1) {
+                if (hit != 1) {
+                    int damage = (hit == 10 ? 2 : 1) * dice.roll(monsterDie[m]);
+                    for (int c = 0; c < characters; c++) {
+                        if (hp[c] > 0) takeDamage(c, damage, monsterType[m]);
+                    }
+                }
+                return;
+            }
+            if (hp[target] > 0) {
+                if (hit != 1) {
+                    takeDamage(target, (hit == 10 ? 2 : 1) * dice.roll(monsterDie[m]), monsterType[m]);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Method with the attack of a character, like {@link CharacterGame#getTarget} and {@link CharacterGame#attack}
+     * of its class.
+     * @param c integer with the index of the character attacking.
+     * @param dice dice {@link Dice} to roll.
+     */
+    private void characterAttack(int c, Dice dice) {
+        int target = target(c, dice), hit = dice.roll(10);
+
+        if (target == -1) {
+            int heal = dice.roll(10) + mind[c];
+            for (int i = 0; i < characters; i++) {
+                if (kind[c] == PALADIN) {
+                    addHp(i, heal);
+                } else if (hp[i] < maxHp[i] / 2) {
+                    addHp(i, heal);
+                    break;
+                }
+            }
+        }
+        else if (target == -2) {
+            int damage = (hit == 1 ? 0 : hit == 10 ? 2 : 1) * (dice.roll(4) + mind[c]);
+            for (int i = 0; i < monsters; i++) {
+                monsterTakeDamage(alive[i], damage, MAGICAL);
+            }
+            for (int i = 0; i < monsters; ) {
+                if (monsterHp[alive[i]] <= 0) removeMonster(i);
+                else i++;
+            }
+        }
+        else {
+            if (hit != 1) {
+                monsterTakeDamage(alive[target], (hit == 10 ? 2 : 1) * damage(c, dice), attackType(c));
+            }
+            if (monsterHp[alive[target]] <= 0) removeMonster(target);
+        }
+    }
+
+    /**
+     * Method to choose the target of a character, like {@link CharacterGame#getTarget} of its class.
+     * @param c integer with the index of the character.
+     * @param dice dice {@link Dice} to roll.
+     * @return the position in the list of the monster attacked, -1 to heal or -2 to attack every monster.
+     */
+    private int target(int c, Dice dice) {
+        switch (kind[c]) {
+            case CLERIC, PALADIN -> {
+                for (int i = 1; i < characters; i++) {
+                    if (hp[i] < maxHp[i] / 2) return -1;
+                }
+                return dice.pick(monsters);
+            }
+            case WIZARD -> {
+                if (monsters >= 3) return -2;
+                int highest = 0;
+                for (int i = 1; i < monsters; i++) {
+                    if (monsterHp[alive[i]] > monsterHp[alive[highest]]) highest = i;
+                }
+                return highest;
+            }
+            default -> {
+                int lowest = 0;
+                for (int i = 1; i < monsters; i++) {
+                    if (monsterHp[alive[i]] < monsterHp[alive[lowest]]) lowest = i;
+                }
+                return lowest;
+            }
+        }
+    }
+
+    /**
+     * Method to roll the damage of the attack of a character to a single monster, before the multiplier.
+     * @param c integer with the index of the character.
+     * @param dice dice {@link Dice} to roll.
+     * @return an integer with the damage.
+     */
+    private int damage(int c, Dice dice) {
+        return switch (kind[c]) {
+            case WARRIOR -> dice.roll(10) + body[c];
+            case CLERIC -> dice.roll(4) + spirit[c];
+            case PALADIN -> dice.roll(8) + spirit[c];
+            case WIZARD -> dice.roll(6) + mind[c];
+            default -> dice.roll(6) + body[c];
+        };
+    }
+
+    /**
+     * Method to get the type of damage a character deals.
+     * @param c integer with the index of the character.
+     * @return the damage type.
+     */
+    private int attackType(int c) {
+        return switch (kind[c]) {
+            case CLERIC, PALADIN -> PSYCHICAL;
+            case WIZARD -> MAGICAL;
+            default -> PHYSICAL;
+        };
+    }
+
+    /**
+     * Method for a character to take damage, like {@link CharacterGame#takeDamage} of its class.
+     * @param c integer with the index of the character.
+     * @param damage integer with the damage dealt.
+     * @param type integer with the damage type.
+     */
+    private void takeDamage(int c, int damage, int type) {
+        switch (kind[c]) {
+            case WARRIOR -> addHp(c, -(type == PHYSICAL ? damage / 2 : damage));
+            case PALADIN -> addHp(c, -(type == PSYCHICAL ? damage / 2 : damage));
+            case WIZARD -> {
+                if (type == MAGICAL) damage = Math.max(0, damage - level[c]);
+                if (shield[c] > 0) {
+                    shield[c] -= damage;
+                    if (shield[c] < 0) addHp(c, shield[c]);
+                } else {
+                    addHp(c, -damage);
+                }
+            }
+            default -> addHp(c, -damage);
+        }
+    }
+
+    /**
+     * Method to add hit points to a character, like {@link CharacterGame#addToHitPoints}, counting it if it falls
+     * unconscious or wakes up.
+     * @param c integer with the index of the character.
+     * @param amount integer with the hit points added, negative to subtract them.
+     */
+    private void addHp(int c, int amount) {
+        boolean wasConscious = hp[c] > 0;
+        hp[c] = Math.max(0, Math.min(maxHp[c], hp[c] + amount));
+        if (wasConscious != hp[c] > 0) conscious += wasConscious ? -1 : 1;
+    }
+
+    /**
+     * Method for a monster to take damage, like {@link Monster#takeDamage} and {@link Boss#takeDamage}.
+     * @param m integer with the monster.
+     * @param damage integer with the damage dealt.
+     * @param type integer with the damage type.
+     */
+    private void monsterTakeDamage(int m, int damage, int type) {
+        monsterHp[m] -= boss[m] && monsterType[m] == type ? damage / 2 : damage;
+    }
+
+    /**
+     * Method to remove a monster from the combat, keeping the order of the rest, and unlink it from the turns.
+     * @param i integer with the position of the monster in the list.
+     */
+    private void removeMonster(int i) {
+        int t = turnOf[alive[i]];
+        for (int k = i + 1; k < monsters; k++) {
+            alive[k - 1] = alive[k];
+        }
+        monsters--;
+
+        if (previous[t] == END) first = next[t];
+        else next[previous[t]] = next[t];
+        if (next[t] != END) previous[next[t]] = previous[t];
+    }
+
+    /**
+     * Method to copy a monster into the kernel.
+     * @param i integer with the monster.
+     * @param monster monster {@link Monster} to be copied.
+     * @param rolled integer with the initiative of the monster.
+     */
+    private void loadMonster(int i, Monster monster, int rolled) {
+        monsterHp[i] = monster.getHitPoints();
+        monsterInitiative[i] = rolled;
+        monsterDie[i] = sides(monster.getDamageDice());
+        monsterType[i] = typeOf(monster.getDamageType());
+        boss[i] = monster instanceof Boss;
+    }
+
+    /**
+     * Method to make room for a number of monsters.
+     * @param size integer with the number of monsters.
+     */
+    private void ensureMonsters(int size) {
+        if (size > monsterHp.length) {
+            int length = Math.max(size, monsterHp.length * 2);
+            monsterHp = Arrays.copyOf(monsterHp, length);
+            monsterInitiative = Arrays.copyOf(monsterInitiative, length);
+            monsterDie = Arrays.copyOf(monsterDie, length);
+            monsterType = Arrays.copyOf(monsterType, length);
+            boss = Arrays.copyOf(boss, length);
+            alive = Arrays.copyOf(alive, length);
+            turnOf = Arrays.copyOf(turnOf, length);
+        }
+    }
+
+    /**
+     * Method to make room for a number of characters.
+     * @param size integer with the number of characters.
+     */
+    private void ensureCharacters(int size) {
+        if (size > hp.length) {
+            int length = Math.max(size, hp.length * 2);
+            kind = Arrays.copyOf(kind, length);
+            hp = Arrays.copyOf(hp, length);
+            maxHp = Arrays.copyOf(maxHp, length);
+            shield = Arrays.copyOf(shield, length);
+            body = Arrays.copyOf(body, length);
+            mind = Arrays.copyOf(mind, length);
+            spirit = Arrays.copyOf(spirit, length);
+            level = Arrays.copyOf(level, length);
+            initiative = Arrays.copyOf(initiative, length);
+        }
+    }
+
+    /**
+     * Method to get the number of sides of the damage dice of a monster (like "d12"), without creating a substring.
+     * @param damageDice string with the damage dice.
+     * @return an integer with the number of sides.
+     */
+    private static int sides(String damageDice) {
+        int sides = 0;
+        for (int i = 1; i < damageDice.length(); i++) {
+            sides = sides * 10 + (damageDice.charAt(i) - '0');
+        }
+        return sides;
+    }
+
+    /**
+     * Method to get the number of a damage type.
+     * @param damageType string with the damage type.
+     * @return an integer with the damage type.
+     */
+    private static int typeOf(String damageType) {
+        return switch (damageType) {
+            case "Physical" -> PHYSICAL;
+            case "Magical" -> MAGICAL;
+            case "Psychical" -> PSYCHICAL;
+            default -> OTHER;
+        };
+    }
+
+    /**
+     * Method to get how a character fights, from its class.
+     * @param character character {@link CharacterGame} instance.
+     * @return an integer with the class of the character.
+     */
+    private static int kindOf(CharacterGame character) {
+        if (character instanceof Wizard) return WIZARD;
+        if (character instanceof Paladin) return PALADIN;
+        if (character instanceof Cleric) return CLERIC;
+        if (character instanceof Warrior || character instanceof Champion) return WARRIOR;
+        if (character instanceof Adventurer) return ADVENTURER;
+        throw new IllegalArgumentException("Unknown class of character: " + character.getClass().getSimpleName());
+    }
+}
@@ -0,0 +1,241 @@
+package business.simulation;
+
+import business.AdventureManager;
+import business.CharacterManager;
+import business.EncounterManager;
+import business.combat.CombatSink;
+import business.dice.Dice;
+import business.dice.SplittableDice;
+import business.entities.Adventure;
+import business.entities.Characters.CharacterGame;
+import business.entities.Encounter;
+import business.entities.Monsters.Monster;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is to check that the combat kernel {@link CombatKernel} plays the combats like
+ * {@link AdventureManager#combatStage}, with the adventures and characters stored in the system. Random parties face
+ * random encounters, and each combat is played twice from the same state: once with the objects and once with the
+ * kernel. With the same dice both must end exactly the same, and with different dice they must have the same win
+ * rate and number of rounds.
+ * It is run on its own, as "java business.simulation.CombatKernelCheck [combats] [seed]", and it ends with status 1
+ * if any check fails.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+public final class CombatKernelCheck {
+    /**
+     * Value of the standard normal distribution over which the difference between both is too large to be chance.
+     */
+    private static final double MAX_Z = 3.5;
+
+    /**
+     * Constructor hidden, as the class is only run.
+     */
+    private CombatKernelCheck() {}
+
+    /**
+     * Method to run the check.
+     * @param args the number of combats, 20000 by default, and the seed, 1 by default.
+     */
+    public static void main(String[] args) {
+        int combats = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+
+        AdventureManager am = new AdventureManager();
+        CharacterManager cm = new CharacterManager();
+        EncounterManager em = new EncounterManager();
+        List<CharacterGame> roster = cm.getCharacters();
+        List<Encounter> encounters = new ArrayList<>();
+        for (Adventure adventure : am.getAdventures()) {
+            em.createMonsters(adventure.getEncounters());
+            for (Encounter encounter : adventure.getEncounters()) {
+                if (!encounter.getMonsters().isEmpty()) encounters.add(encounter);
+            }
+        }
+        if (roster == null || roster.size() < 3 || encounters.isEmpty()) {
+            System.out.println("At least 3 characters and one encounter with monsters are needed.");
+            System.exit(1);
+        }
+
+        Dice setup = new SplittableDice(seed);
+        int mismatches = 0;
+        int[] wins = new int[3];
+        long[] rounds = new long[3];
+        long[] roundsSquared = new long[3];
+        for (int n = 0; n < combats; n++) {
+            List<CharacterGame> party = party(roster, setup);
+            Encounter encounter = copy(encounters.get(setup.pick(encounters.size())));
+            cm.initializeHitPoints(party);
+            cm.preparationStage(party, setup);
+            em.rollInitiative(encounter, setup);
+            em.sortInitiative(encounter);
+            cm.rollInitiative(party, setup);
+            cm.sortInitiative(party);
+
+            long combat = seed * 1_000_003L + n;
+            List<CharacterGame> kernelParty = copy(party);
+            Encounter kernelEncounter = copy(encounter);
+            List<CharacterGame> freeParty = copy(party);
+            Encounter freeEncounter = copy(encounter);
+
+            // 0: objects, 1: kernel with the same dice, 2: kernel with other dice
+            int[] played = new int[3];
+            played[0] = combatStage(am, encounter, party, new SplittableDice(combat));
+            played[1] = kernel(kernelEncounter, kernelParty, new SplittableDice(combat));
+            played[2] = kernel(freeEncounter, freeParty, setup.split());
+            if (played[0] != played[1] || !sameState(party, kernelParty)) mismatches++;
+
+            boolean[] won = {cm.partyIsAlive(party), cm.partyIsAlive(kernelParty), cm.partyIsAlive(freeParty)};
+            for (int i = 0; i < 3; i++) {
+                if (won[i]) wins[i]++;
+                rounds[i] += played[i];
+                roundsSquared[i] += (long) played[i] * played[i];
+            }
+        }
+
+        double winZ = proportionZ(wins[0], wins[2], combats);
+        double roundsZ = meanZ(rounds[0], roundsSquared[0], rounds[2], roundsSquared[2], combats);
+        System.out.printf("Combats: %d, different with the same dice: %d%n", combats, mismatches);
+        System.out.printf("Win rate: objects %.4f, kernel %.4f (z = %.2f)%n", (double) wins[0] / combats,
+                (double) wins[2] / combats, winZ);
+        System.out.printf("Rounds: objects %.3f, kernel %.3f (z = %.2f)%n", (double) rounds[0] / combats,
+                (double) rounds[2] / combats, roundsZ);
+
+        boolean passed = mismatches == 0 && Math.abs(winZ) < MAX_Z && Math.abs(roundsZ) < MAX_Z;
+        System.out.println(passed ? "The kernel plays like the objects." : "The kernel does NOT play like the objects.");
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * Method to play a combat with the objects.
+     * @param am adventure manager {@link AdventureManager} with the logic of the combat.
+     * @param encounter encounter {@link Encounter} being played.
+     * @param party list of character {@link CharacterGame} instances playing it.
+     * @param dice dice {@link Dice} to roll.
+     * @return an integer with the number of rounds played.
+     */
+    private static int combatStage(AdventureManager am, Encounter encounter, List<CharacterGame> party, Dice dice) {
+        int[] rounds = new int[1];
+        am.combatStage(encounter, party, new CombatSink() {
+            @Override
+            public void roundStarted(int round, List<CharacterGame> party) {
+                rounds[0]++;
+            }
+        }, dice);
+        return rounds[0];
+    }
+
+    /**
+     * Method to play a combat with the kernel, storing the result in the party.
+     * @param encounter encounter {@link Encounter} being played.
+     * @param party list of character {@link CharacterGame} instances playing it.
+     * @param dice dice {@link Dice} to roll.
+     * @return an integer with the number of rounds played.
+     */
+    private static int kernel(Encounter encounter, List<CharacterGame> party, Dice dice) {
+        CombatKernel kernel = new CombatKernel();
+        kernel.loadMonsters(encounter);
+        kernel.loadParty(party);
+        int rounds = kernel.fight(dice);
+        kernel.storeParty(party);
+        return rounds;
+    }
+
+    /**
+     * Method to pick a random party of 3 to 5 different characters.
+     * @param roster list of character {@link CharacterGame} instances to pick from.
+     * @param dice dice {@link Dice} to roll.
+     * @return the list of copies of the characters picked.
+     */
+    private static List<CharacterGame> party(List<CharacterGame> roster, Dice dice) {
+        List<CharacterGame> available = new ArrayList<>(roster);
+        List<CharacterGame> party = new ArrayList<>();
+        int size = Math.min(available.size(), 2 + dice.roll(3));
+        while (party.size() < size) {
+            party.add(available.remove(dice.pick(available.size())).copy());
+        }
+        return party;
+    }
+
+    /**
+     * Method to copy the characters of a party with the state they have during an adventure.
+     * @param party list of character {@link CharacterGame} instances.
+     * @return the list of copies.
+     */
+    private static List<CharacterGame> copy(List<CharacterGame> party) {
+        List<CharacterGame> copies = new ArrayList<>();
+        for (CharacterGame character : party) {
+            CharacterGame copy = character.copy();
+            copy.setMaxHitPoints(character.getMaxHitPoints());
+            copy.setHitPoints(character.getHitPoints());
+            copy.setShield(character.getShield());
+            copy.setInitiative(character.getInitiative());
+            copy.setBuff(character.getBuff());
+            copies.add(copy);
+        }
+        return copies;
+    }
+
+    /**
+     * Method to copy an encounter with copies of its monsters.
+     * @param encounter encounter {@link Encounter} to be copied.
+     * @return the copy.
+     */
+    private static Encounter copy(Encounter encounter) {
+        List<Monster> monsters = new ArrayList<>();
+        for (Monster monster : encounter.getMonsters()) {
+            monsters.add(monster.copy());
+        }
+        return new Encounter(encounter.getMonsterTypes(), encounter.getAmount(), monsters);
+    }
+
+    /**
+     * Method to check if two parties ended a combat in the same state.
+     * @param a a list of character {@link CharacterGame} instances.
+     * @param b another list of character {@link CharacterGame} instances.
+     * @return true if each character has the same hit points and shield, false otherwise.
+     */
+    private static boolean sameState(List<CharacterGame> a, List<CharacterGame> b) {
+        for (int i = 0; i < a.size(); i++) {
+            if (a.get(i).getHitPoints() != b.get(i).getHitPoints() || a.get(i).getShield() != b.get(i).getShield()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Method to compare two ratios with the same number of samples.
+     * @param a integer with the successes of the first one.
+     * @param b integer with the successes of the second one.
+     * @param n integer with the number of samples of each one.
+     * @return the z statistic of the difference.
+     */
+    private static double proportionZ(int a, int b, int n) {
+        double p = (a + b) / (2.0 * n);
+        double error = Math.sqrt(p * (1 - p) * 2 / n);
+        return error == 0 ? 0 : (a - b) / (double) n / error;
+    }
+
+    /**
+     * Method to compare two averages with the same number of samples.
+     * @param sumA long with the sum of the first one.
+     * @param squaresA long with the sum of the squares of the first one.
+     * @param sumB long with the sum of the second one.
+     * @param squaresB long with the sum of the squares of the second one.
+     * @param n integer with the number of samples of each one.
+     * @return the z statistic of the difference.
+     */
+    private static double meanZ(long sumA, long squaresA, long sumB, long squaresB, int n) {
+        double meanA = (double) sumA / n;
+        double meanB = (double) sumB / n;
+        double varianceA = (squaresA - sumA * meanA) / (n - 1);
+        double varianceB = (squaresB - sumB * meanB) / (n - 1);
+        double error = Math.sqrt((varianceA + varianceB) / n);
+        return error == 0 ? 0 : (meanA - meanB) / error;
+    }
+}
@@ -0,0 +1,126 @@
+package business.simulation;
+
+import business.entities.Adventure;
+import business.entities.Characters.CharacterGame;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * This class is to represent the results of simulating many playthroughs of an adventure {@link Adventure} with a
+ * party, each of them estimated with a 95% confidence interval.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+public class SimulationResult {
+    /**
+     * Class to represent a value estimated from the playthroughs, with the interval where the real value is with a
+     * 95% confidence.
+     */
+    public static final class Estimate {
+        // value estimated.
+        private final double value;
+        // lower bound of the confidence interval.
+        private final double lower;
+        // upper bound of the confidence interval.
+        private final double upper;
+
+        /**
+         * Constructor with the parameters to create an estimate.
+         * @param value double with the value estimated.
+         * @param lower double with the lower bound of the confidence interval.
+         * @param upper double with the upper bound of the confidence interval.
+         */
+        Estimate(double value, double lower, double upper) {
+            this.value = value;
+            this.lower = lower;
+            this.upper = upper;
+        }
+
+        /**
+         * Method to get the value estimated.
+         * @return a double with the value.
+         */
+        public double getValue() {return value;}
+
+        /**
+         * Method to get the lower bound of the confidence interval.
+         * @return a double with the lower bound.
+         */
+        public double getLower() {return lower;}
+
+        /**
+         * Method to get the upper bound of the confidence interval.
+         * @return a double with the upper bound.
+         */
+        public double getUpper() {return upper;}
+
+        /**
+         * Method to get the estimate as text.
+         * @return a string with the value and its confidence interval.
+         */
+        @Override
+        public String toString() {
+            return String.format("%.3f [%.3f, %.3f]", value, lower, upper);
+        }
+    }
+
+    // number of playthroughs simulated.
+    private final int runs;
+    // ratio of playthroughs the party completed the adventure.
+    private final Estimate winRate;
+    // ratio of playthroughs each character ended conscious, by the name of the character.
+    private final Map<String, Estimate> survival;
+    // average number of combat rounds of a playthrough.
+    private final Estimate rounds;
+    // average experience points each character gained in a playthrough.
+    private final Estimate xp;
+
+    /**
+     * Constructor with the parameters to create the results of a simulation.
+     * @param runs integer with the number of playthroughs simulated.
+     * @param winRate estimate of the ratio of playthroughs the party completed the adventure.
+     * @param survival map with the estimate of the ratio of playthroughs each character {@link CharacterGame} ended
+     * conscious, by its name, in the order of the party.
+     * @param rounds estimate of the average number of combat rounds of a playthrough.
+     * @param xp estimate of the average experience points each character gained in a playthrough.
+     */
+    SimulationResult(int runs, Estimate winRate, Map<String, Estimate> survival, Estimate rounds, Estimate xp) {
+        this.runs = runs;
+        this.winRate = winRate;
+        this.survival = Collections.unmodifiableMap(survival);
+        this.rounds = rounds;
+        this.xp = xp;
+    }
+
+    /**
+     * Method to get the number of playthroughs simulated.
+     * @return an integer with the number of playthroughs.
+     */
+    public int getRuns() {return runs;}
+
+    /**
+     * Method to get the ratio of playthroughs in which the party completed the adventure.
+     * @return the estimate of the win rate, between 0 and 1.
+     */
+    public Estimate getWinRate() {return winRate;}
+
+    /**
+     * Method to get the ratio of playthroughs in which each character {@link CharacterGame} ended conscious.
+     * @return a map with the estimate of the survival rate of each character, by its name, in the order of the party.
+     */
+    public Map<String, Estimate> getSurvival() {return survival;}
+
+    /**
+     * Method to get the average number of combat rounds of a playthrough.
+     * @return the estimate of the average number of rounds.
+     */
+    public Estimate getRounds() {return rounds;}
+
+    /**
+     * Method to get the average experience points each character {@link CharacterGame} gained in a playthrough.
+     * @return the estimate of the average experience points.
+     */
+    public Estimate getXp() {return xp;}
+}
@@ -3,14 +3,18 @@ package persistence.API;
 import business.entities.Adventure;
 import business.entities.Characters.CharacterGame;
 import business.entities.Encounter;
-import business.entities.Monsters.Boss;
 import business.entities.Monsters.Monster;
 import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonReader;
 import persistence.AdventureDAO;
+import persistence.JSON.MonsterTypeAdapter;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This class is to store and read adventure instances {@link Adventure} information through an API.
@@ -19,71 +23,160 @@ import java.util.List;
  * @version 1.0 28/06/2023
  */
 public class APIAdventureDAO implements AdventureDAO {
+    /**
+     * Reads of the adventures in flight, shared by all the instances so the concurrent ones send a single request.
+     * The adventures posted through the api stop them from being joined.
+     */
+    private static final SingleFlight<List<Adventure>> reads = new SingleFlight<>(APIAdventureDAO::copy);
+
     /**
      * A gson instance to read the information from the API
      */
     private final Gson gson;
 
+    /**
+     * A gson instance to read the adventures, creating their monsters without reflection.
+     */
+    private final Gson adventureGson;
+
     /**
      * Constructor to create a APIAdventureDAO.
      */
     public APIAdventureDAO() {
         gson = new Gson();
+        adventureGson = new GsonBuilder().registerTypeAdapter(Monster.class, new MonsterTypeAdapter()).create();
     }
 
     /**
-     * Method to get the data of adventures through the api.
+     * Adventures being read in the background, null if they are not being preloaded.
+     */
+    private CompletableFuture<List<Adventure>> preloaded;
+
+    /**
+     * Method to get the adventures through the api. If they were preloaded, the preloaded ones are returned.
      * @return List of adventures instances.
      */
     @Override
     public List<Adventure> read() {
+        CompletableFuture<List<Adventure>> future = takePreloaded();
+        return (future != null ? future : readAsync()).join();
+    }
+
+    /**
+     * Method to get the adventures through the api without blocking. If they are already being read, and no adventure
+     * has been posted since, the read in flight is joined instead of sending another request.
+     * @return Future with the list of adventures instances, completed with null if the API can not be reached.
+     */
+    @Override
+    public CompletableFuture<List<Adventure>> readAsync() {
+        String URL = ApiEndpoints.adventures();
+
+        return reads.read(URL, () -> {
+            try {
+                ApiHelper api = new ApiHelper();
+                return api.readFromUrlAsync(URL, this::parse).exceptionally(e -> null);
+            } catch (IOException e) {
+                return CompletableFuture.completedFuture(null);
+            }
+        });
+    }
+
+    /**
+     * Method to start reading the adventures through the api in the background.
+     */
+    @Override
+    public synchronized void preload() {
+        preloaded = readAsync();
+    }
+
+    /**
+     * Method to get the preloaded adventures, so they are only used once. Any change made through the api discards
+     * them as well, as they would be outdated.
+     * @return the future with the preloaded adventures, null if there are none.
+     */
+    private synchronized CompletableFuture<List<Adventure>> takePreloaded() {
+        CompletableFuture<List<Adventure>> future = preloaded;
+        preloaded = null;
+        return future;
+    }
+
+    /**
+     * Method to create the adventures from the response of the api as it arrives, one by one. The monsters of each
+     * encounter are created directly as monsters or bosses.
+     * @param body reader of the response, with the json array of adventures.
+     * @return List of adventures instances.
+     * @throws IOException if the response can not be read.
+     */
+    private List<Adventure> parse(Reader body) throws IOException {
         List<Adventure> adventures = new ArrayList<>();
-        String URL = "https://balandrau.salle.url.edu/dpoo/S1_Project_ICE9/adventures";
-        String response = null;
+        JsonReader reader = new JsonReader(body);
 
-        try {
-            ApiHelper api = new ApiHelper();
-            response = api.getFromUrl(URL);
-            Adventure[] adventureArr = gson.fromJson(response, Adventure[].class);
-
-            for (int i = 0; i < adventureArr.length; i++) {
-                List<Encounter> encounters = new ArrayList<>();
-                for (int j = 0; j < adventureArr[i].getNumEncounters(); j++) {
-                    Encounter encounter = adventureArr[i].getEncounters().get(j);
-                    List<Monster> monsters = new ArrayList<>();
-                    for (int k = 0; k < adventureArr[i].getEncounters().get(j).getMonsters().size(); k++) {
-                        Monster monster = adventureArr[i].getEncounters().get(j).getMonsters().get(k);
-                        if (monster.getChallenge().equals("Boss")) {
-                            monsters.add(new Boss(monster.getName(), monster.getChallenge(), monster.getExperience(),
-                                    monster.getHitPoints(), monster.getInitiative(), monster.getDamageDice(), monster.getDamageType()));
-                        } else {
-                            monsters.add(new Monster(monster.getName(), monster.getChallenge(), monster.getExperience(),
-                                    monster.getHitPoints(), monster.getInitiative(), monster.getDamageDice(), monster.getDamageType()));
-                        }
-                    }
-                    encounters.add(new Encounter(encounter.getMonsterTypes(), encounter.getAmount(), monsters));
-                }
-                adventures.add(new Adventure(adventureArr[i].getName(), adventureArr[i].getNumEncounters(), encounters));
+        reader.beginArray();
+        while (reader.hasNext()) {
+            Adventure adventure = adventureGson.fromJson(reader, Adventure.class);
+            List<Encounter> encounters = new ArrayList<>();
+            for (int j = 0; j < adventure.getNumEncounters(); j++) {
+                Encounter encounter = adventure.getEncounters().get(j);
+                List<Monster> monsters = encounter.getMonsters() == null ? new ArrayList<>()
+                        : new ArrayList<>(encounter.getMonsters());
+                encounters.add(new Encounter(encounter.getMonsterTypes(), encounter.getAmount(), monsters));
             }
-        } catch (IOException e) {
-            return null;
+            adventures.add(new Adventure(adventure.getName(), adventure.getNumEncounters(), encounters));
         }
+        reader.endArray();
 
         return adventures;
     }
 
+    /**
+     * Method to copy the adventures read, so each read gets its own instances, down to the monsters of each
+     * encounter.
+     * @param adventures List of adventures instances.
+     * @return a new list with a copy of each adventure.
+     */
+    private static List<Adventure> copy(List<Adventure> adventures) {
+        List<Adventure> copies = new ArrayList<>(adventures.size());
+        for (Adventure adventure : adventures) {
+            List<Encounter> encounters = new ArrayList<>(adventure.getEncounters().size());
+            for (Encounter encounter : adventure.getEncounters()) {
+                List<Monster> monsters = new ArrayList<>(encounter.getMonsters().size());
+                for (Monster monster : encounter.getMonsters()) {
+                    monsters.add(monster.copy());
+                }
+                encounters.add(new Encounter(new ArrayList<>(encounter.getMonsterTypes()),
+                        new ArrayList<>(encounter.getAmount()), monsters));
+            }
+            copies.add(new Adventure(adventure.getName(), adventure.getNumEncounters(), encounters));
+        }
+        return copies;
+    }
+
     /**
      * Method to post new adventures through the api.
      * @param adventures List of adventures instances.
      */
     @Override
     public void write(List<Adventure> adventures) {
-        String URL = "https://balandrau.salle.url.edu/dpoo/S1_Project_ICE9/adventures";
+        String URL = ApiEndpoints.adventures();
         String body = gson.toJson(adventures.get(adventures.size() - 1));
 
+        takePreloaded();
         try {
             ApiHelper api = new ApiHelper();
             api.postToUrl(URL, body);
         } catch (IOException Ignored) {}
+        reads.invalidate();
+    }
+
+    /**
+     * Method to post an adventure through the api without blocking.
+     * @param api helper used to send the requests.
+     * @param adventure Adventure instance to be posted.
+     * @return Future completed when the adventure has been posted, exceptionally if the request failed.
+     */
+    CompletableFuture<Void> addAsync(ApiHelper api, Adventure adventure) {
+        return api.postToUrlAsync(ApiEndpoints.adventures(), gson.toJson(adventure))
+                .whenComplete((response, e) -> reads.invalidate())
+                .thenApply(response -> null);
     }
 }
@@ -3,11 +3,16 @@ package persistence.API;
 import business.entities.Adventure;
 import business.entities.Characters.*;
 import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
 import persistence.CharacterDAO;
+import persistence.JSON.CharacterTypeAdapter;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 
 /**
@@ -17,75 +22,150 @@ import java.util.List;
  * @version 1.0 28/06/2023
  */
 public class APICharacterDAO implements CharacterDAO {
+    /**
+     * Reads of the characters in flight, shared by all the instances so the concurrent ones send a single request.
+     * The changes made through the api stop them from being joined.
+     */
+    private static final SingleFlight<List<CharacterGame>> reads = new SingleFlight<>(APICharacterDAO::copy);
 
     /**
      * Gson instance.
      */
     private final Gson gson;
 
+    /**
+     * Adapter to read the characters without reflection.
+     */
+    private final CharacterTypeAdapter characterAdapter;
+
     /**
      * Constructor method.
      */
     public APICharacterDAO() {
         gson = new Gson();
+        characterAdapter = new CharacterTypeAdapter();
     }
 
     /**
-     * Method to get the characters through the api.
+     * Characters being read in the background, null if they are not being preloaded.
+     */
+    private CompletableFuture<List<CharacterGame>> preloaded;
+
+    /**
+     * Method to get the characters through the api. If they were preloaded, the preloaded ones are returned.
      * @return List of characters instances.
      */
     @Override
     public List<CharacterGame> read() {
+        CompletableFuture<List<CharacterGame>> future = takePreloaded();
+        return (future != null ? future : readAsync()).join();
+    }
+
+    /**
+     * Method to get the characters through the api without blocking. If they are already being read, and no change
+     * has been made since, the read in flight is joined instead of sending another request.
+     * @return Future with the list of characters instances, completed with null if the API can not be reached.
+     */
+    @Override
+    public CompletableFuture<List<CharacterGame>> readAsync() {
+        String URL = ApiEndpoints.characters();
+
+        return reads.read(URL, () -> {
+            try {
+                ApiHelper api = new ApiHelper();
+                return api.readFromUrlAsync(URL, this::parse).exceptionally(e -> null);
+            } catch (IOException e) {
+                return CompletableFuture.completedFuture(null);
+            }
+        });
+    }
+
+    /**
+     * Method to start reading the characters through the api in the background.
+     */
+    @Override
+    public synchronized void preload() {
+        preloaded = readAsync();
+    }
+
+    /**
+     * Method to get the preloaded characters, so they are only used once. Any change made through the api discards
+     * them as well, as they would be outdated.
+     * @return the future with the preloaded characters, null if there are none.
+     */
+    private synchronized CompletableFuture<List<CharacterGame>> takePreloaded() {
+        CompletableFuture<List<CharacterGame>> future = preloaded;
+        preloaded = null;
+        return future;
+    }
+
+    /**
+     * Method to create the characters from the response of the api as it arrives, one by one.
+     * @param body reader of the response, with the json array of characters.
+     * @return List of characters instances.
+     * @throws IOException if the response can not be read.
+     */
+    private List<CharacterGame> parse(Reader body) throws IOException {
         List<CharacterGame> characters = new ArrayList<>();
-        String URL = "https://balandrau.salle.url.edu/dpoo/S1_Project_ICE9/characters";
-        String response;
+        JsonReader reader = new JsonReader(body);
 
-        try {
-            ApiHelper api = new ApiHelper();
-            response = api.getFromUrl(URL);
-            CharacterGame[] characterArr = gson.fromJson(response, Adventurer[].class);
-            for (int i = 0; i < characterArr.length; i++) {
-                switch (characterArr[i].getClassType()) {
-                    case "Adventurer" -> characters.add(new Adventurer(characterArr[i].getName(), characterArr[i].getPlayer(),
-                            characterArr[i].getXp(), characterArr[i].getBody(), characterArr[i].getMind(), characterArr[i].getSpirit(),
-                            characterArr[i].getClassType()));
-                    case "Warrior" -> characters.add(new Warrior(characterArr[i].getName(), characterArr[i].getPlayer(),
-                            characterArr[i].getXp(), characterArr[i].getBody(), characterArr[i].getMind(), characterArr[i].getSpirit(),
-                            characterArr[i].getClassType()));
-                    case "Champion" -> characters.add(new Champion(characterArr[i].getName(), characterArr[i].getPlayer(),
-                            characterArr[i].getXp(), characterArr[i].getBody(), characterArr[i].getMind(), characterArr[i].getSpirit(),
-                            characterArr[i].getClassType()));
-                    case "Cleric" -> characters.add(new Cleric(characterArr[i].getName(), characterArr[i].getPlayer(),
-                            characterArr[i].getXp(), characterArr[i].getBody(), characterArr[i].getMind(), characterArr[i].getSpirit(),
-                            characterArr[i].getClassType()));
-                    case "Paladin" -> characters.add(new Paladin(characterArr[i].getName(), characterArr[i].getPlayer(),
-                            characterArr[i].getXp(), characterArr[i].getBody(), characterArr[i].getMind(), characterArr[i].getSpirit(),
-                            characterArr[i].getClassType()));
-                    case "Wizard" -> characters.add(new Wizard(characterArr[i].getName(), characterArr[i].getPlayer(),
-                            characterArr[i].getXp(), characterArr[i].getBody(), characterArr[i].getMind(), characterArr[i].getSpirit(),
-                            characterArr[i].getClassType()));
-                }
+        reader.beginArray();
+        while (reader.hasNext()) {
+            CharacterGame character = characterAdapter.read(reader);
+            if (character != null) {
+                characters.add(character);
             }
-        } catch (IOException e) {
-            return null;
         }
+        reader.endArray();
 
         return characters;
     }
 
+    /**
+     * Method to copy the characters read, so each read gets its own instances.
+     * @param characters List of characters instances.
+     * @return a new list with a copy of each character.
+     */
+    private static List<CharacterGame> copy(List<CharacterGame> characters) {
+        List<CharacterGame> copies = new ArrayList<>(characters.size());
+        for (CharacterGame character : characters) {
+            copies.add(character.copy());
+        }
+        return copies;
+    }
+
     /**
      * Method save new characters through the API.
      * @param characters List of characters instances.
      */
     @Override
     public void write(List<CharacterGame> characters) {
-        String URL = "https://balandrau.salle.url.edu/dpoo/S1_Project_ICE9/characters";
+        String URL = ApiEndpoints.characters();
         String body = gson.toJson(characters.get(characters.size() - 1));
 
+        takePreloaded();
         try {
             ApiHelper api = new ApiHelper();
             api.postToUrl(URL, body);
         } catch (IOException Ignored) {}
+        reads.invalidate();
+    }
+
+    /**
+     * Method to add a new character through the API.
+     * @param character Character instance to be added.
+     */
+    @Override
+    public void addCharacter(CharacterGame character) {
+        String URL = ApiEndpoints.characters();
+        String body = gson.toJson(character);
+
+        takePreloaded();
+        try {
+            ApiHelper api = new ApiHelper();
+            api.postToUrl(URL, body);
+        } catch (IOException Ignored) {}
+        reads.invalidate();
     }
 
     /**
@@ -94,12 +174,14 @@ public class APICharacterDAO implements CharacterDAO {
      */
     @Override
     public void deleteCharacter(CharacterGame character) {
-        String URL = "https://balandrau.salle.url.edu/dpoo/S1_Project_ICE9/characters?name=" + character.getName();
+        String URL = ApiEndpoints.character(character.getName());
 
+        takePreloaded();
         try {
             ApiHelper api = new ApiHelper();
             api.deleteFromUrl(URL);
         } catch (IOException Ignored) {}
+        reads.invalidate();
     }
 
     /**
@@ -108,14 +190,56 @@ public class APICharacterDAO implements CharacterDAO {
      */
     @Override
     public void updateCharacter(CharacterGame character) {
-        String URL_Delete = "https://balandrau.salle.url.edu/dpoo/S1_Project_ICE9/characters?name=" + character.getName();
-        String URL_POST = "https://balandrau.salle.url.edu/dpoo/S1_Project_ICE9/characters";
+        String URL_Delete = ApiEndpoints.character(character.getName());
+        String URL_POST = ApiEndpoints.characters();
         String body = gson.toJson(character);
 
+        takePreloaded();
         try {
             ApiHelper api = new ApiHelper();
             api.deleteFromUrl(URL_Delete);
             api.postToUrl(URL_POST, body);
         } catch (IOException Ignored) {}
+        reads.invalidate();
+    }
+
+    /**
+     * Method to add a character through the API without blocking.
+     * @param api helper used to send the requests.
+     * @param character Character instance to be added.
+     * @return Future completed when the character has been posted, exceptionally if the request failed.
+     */
+    CompletableFuture<Void> addAsync(ApiHelper api, CharacterGame character) {
+        return api.postToUrlAsync(ApiEndpoints.characters(), gson.toJson(character))
+                .whenComplete((response, e) -> reads.invalidate())
+                .thenApply(response -> null);
+    }
+
+    /**
+     * Method to delete a character through the API without blocking. A character that the API does not have counts
+     * as deleted.
+     * @param api helper used to send the requests.
+     * @param name name of the character to be deleted.
+     * @return Future completed when the character has been deleted, exceptionally if the request failed.
+     */
+    CompletableFuture<Void> deleteAsync(ApiHelper api, String name) {
+        return api.deleteFromUrlAsync(ApiEndpoints.character(name)).handle((response, e) -> {
+            reads.invalidate();
+            if (e != null && !ApiHelper.StatusException.isNotFound(e)) {
+                throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Method to replace a character through the API without blocking, deleting it if the API has it and posting it
+     * again.
+     * @param api helper used to send the requests.
+     * @param character Character instance to be replaced.
+     * @return Future completed when the character has been posted, exceptionally if any of the requests failed.
+     */
+    CompletableFuture<Void> replaceAsync(ApiHelper api, CharacterGame character) {
+        return deleteAsync(api, character.getName()).thenCompose(deleted -> addAsync(api, character));
     }
 }
@@ -1,14 +1,15 @@
 package persistence.API;
 
-import business.entities.Adventure;
-import business.entities.Monsters.Boss;
 import business.entities.Monsters.Monster;
-import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import persistence.JSON.MonsterTypeAdapter;
 import persistence.MonsterDAO;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This class is to store and read monster instances {@link Monster} information through an API.
@@ -17,50 +18,105 @@ import java.util.List;
  * @version 1.0 28/06/2023
  */
 public class APIMonsterDAO implements MonsterDAO {
+    /**
+     * Reads of the monsters in flight, shared by all the instances so the concurrent ones send a single request.
+     */
+    private static final SingleFlight<List<Monster>> reads = new SingleFlight<>(APIMonsterDAO::copy);
 
     /**
-     * Gson instance.
+     * Adapter to read the monsters without reflection.
      */
-    private final Gson gson;
+    private final MonsterTypeAdapter monsterAdapter;
 
     /**
      * Constructor method.
      */
     public APIMonsterDAO() {
-        gson = new Gson();
+        monsterAdapter = new MonsterTypeAdapter();
     }
 
     /**
-     * Method to get the monsters information through the API.
+     * Monsters being read in the background, null if they are not being preloaded.
+     */
+    private CompletableFuture<List<Monster>> preloaded;
+
+    /**
+     * Method to get the monsters information through the API. If they were preloaded, the preloaded ones are
+     * returned.
      * @return List of monsters.
      */
     @Override
     public List<Monster> read() {
-        List<Monster> monsters = new ArrayList<>();
-        String URL = "https://balandrau.salle.url.edu/dpoo/shared/monsters";
-        String response = null;
+        CompletableFuture<List<Monster>> future = takePreloaded();
+        return (future != null ? future : readAsync()).join();
+    }
 
-        try {
-            ApiHelper api = new ApiHelper();
-            response = api.getFromUrl(URL);
-            Monster[] monsterArr = gson.fromJson(response, Monster[].class);
+    /**
+     * Method to get the monsters information through the API without blocking. If they are already being read, the
+     * read in flight is joined instead of sending another request.
+     * @return Future with the list of monsters, completed with null if the API can not be reached.
+     */
+    @Override
+    public CompletableFuture<List<Monster>> readAsync() {
+        String URL = ApiEndpoints.monsters();
 
-            for (int i = 0; i < monsterArr.length; i++) {
-                if (monsterArr[i].getChallenge().equals("Boss")) {
-                    monsters.add(new Boss(monsterArr[i].getName(), monsterArr[i].getChallenge(), monsterArr[i].getExperience(),
-                            monsterArr[i].getHitPoints(), monsterArr[i].getInitiative(), monsterArr[i].getDamageDice(),
-                            monsterArr[i].getDamageType()));
-                }
-                else {
-                    monsters.add(new Monster(monsterArr[i].getName(), monsterArr[i].getChallenge(), monsterArr[i].getExperience(),
-                            monsterArr[i].getHitPoints(), monsterArr[i].getInitiative(), monsterArr[i].getDamageDice(),
-                            monsterArr[i].getDamageType()));
-                }
+        return reads.read(URL, () -> {
+            try {
+                ApiHelper api = new ApiHelper();
+                return api.readFromUrlAsync(URL, this::parse).exceptionally(e -> null);
+            } catch (IOException e) {
+                return CompletableFuture.completedFuture(null);
             }
-        } catch (IOException e) {
-            return null;
+        });
+    }
+
+    /**
+     * Method to start reading the monsters through the API in the background.
+     */
+    @Override
+    public synchronized void preload() {
+        preloaded = readAsync();
+    }
+
+    /**
+     * Method to get the preloaded monsters, so they are only used once.
+     * @return the future with the preloaded monsters, null if there are none.
+     */
+    private synchronized CompletableFuture<List<Monster>> takePreloaded() {
+        CompletableFuture<List<Monster>> future = preloaded;
+        preloaded = null;
+        return future;
+    }
+
+    /**
+     * Method to create the monsters from the response of the API as it arrives, one by one.
+     * @param body reader of the response, with the json array of monsters.
+     * @return List of monsters.
+     * @throws IOException if the response can not be read.
+     */
+    private List<Monster> parse(Reader body) throws IOException {
+        List<Monster> monsters = new ArrayList<>();
+        JsonReader reader = new JsonReader(body);
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            monsters.add(monsterAdapter.read(reader));
         }
+        reader.endArray();
 
         return monsters;
     }
+
+    /**
+     * Method to copy the monsters read, so each read gets its own instances.
+     * @param monsters List of monsters.
+     * @return a new list with a copy of each monster.
+     */
+    private static List<Monster> copy(List<Monster> monsters) {
+        List<Monster> copies = new ArrayList<>(monsters.size());
+        for (Monster monster : monsters) {
+            copies.add(monster.copy());
+        }
+        return copies;
+    }
 }
@@ -0,0 +1,102 @@
+package persistence.API;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class is to build the URLs of the API used by the API DAOs. The base URL points to the remote server by
+ * default, and can be changed with the "simplerpg.api.url" system property or {@link #setBaseUrl}, for instance to
+ * use the LocalApiServer {@link LocalApiServer}.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+public final class ApiEndpoints {
+    /**
+     * Base URL of the remote server.
+     */
+    public static final String DEFAULT_BASE_URL = "https://balandrau.salle.url.edu/dpoo";
+
+    /**
+     * Path of the characters, relative to the base URL.
+     */
+    static final String CHARACTERS_PATH = "/S1_Project_ICE9/characters";
+
+    /**
+     * Path of the adventures, relative to the base URL.
+     */
+    static final String ADVENTURES_PATH = "/S1_Project_ICE9/adventures";
+
+    /**
+     * Path of the monsters, relative to the base URL.
+     */
+    static final String MONSTERS_PATH = "/shared/monsters";
+
+    /**
+     * Base URL currently used, without the final slash.
+     */
+    private static volatile String baseUrl = trim(System.getProperty("simplerpg.api.url", DEFAULT_BASE_URL));
+
+    /**
+     * Constructor, not used as all the methods are static.
+     */
+    private ApiEndpoints() {}
+
+    /**
+     * Method to change the base URL of the API.
+     * @param url string with the base URL, such as "http://localhost:8080".
+     */
+    public static void setBaseUrl(String url) {
+        baseUrl = trim(url);
+    }
+
+    /**
+     * Method to get the base URL of the API.
+     * @return string with the base URL, without the final slash.
+     */
+    public static String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Method to get the URL of the characters.
+     * @return string with the URL.
+     */
+    static String characters() {
+        return baseUrl + CHARACTERS_PATH;
+    }
+
+    /**
+     * Method to get the URL of a single character.
+     * @param name string with the name of the character.
+     * @return string with the URL, with the name encoded as a query parameter.
+     */
+    static String character(String name) {
+        return characters() + "?name=" + URLEncoder.encode(name, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Method to get the URL of the adventures.
+     * @return string with the URL.
+     */
+    static String adventures() {
+        return baseUrl + ADVENTURES_PATH;
+    }
+
+    /**
+     * Method to get the URL of the monsters.
+     * @return string with the URL.
+     */
+    static String monsters() {
+        return baseUrl + MONSTERS_PATH;
+    }
+
+    /**
+     * Method to remove the final slash of a URL.
+     * @param url string with the URL.
+     * @return the URL without the final slash.
+     */
+    private static String trim(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -3,39 +3,332 @@ package persistence.API;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringWriter;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.security.KeyManagementException;
 import java.security.NoSuchAlgorithmException;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Helper class with the responsibility of reading and posting Strings to an HTTPS API. Due to a misconfiguration
  * in the SimpleRPG API, it's set up to ignore SSL certificates, connecting to any server.
  * Be aware that this should NOT be used in real production environments, as verifying certificates is a
  * key part of ensuring security in the context of Internet communications
+ * All the helpers share a single client, so connections, TLS sessions and HTTP/2 streams are reused across requests
+ * and DAOs. It is created on first use with the settings given to {@link #configure}.
+ * GET responses are kept in an on-disk cache, and sent back to the server as conditional requests (If-None-Match,
+ * If-Modified-Since) so it can answer "304 Not Modified" without sending the content again.
+ * Reads and writes have their own timeout, which for reads covers the whole body and not only the moment the response
+ * starts arriving. Every request goes through a {@link CircuitBreaker}: after a few
+ * consecutive requests fail or are slow, the next ones fail at once with a {@link CircuitBreaker.OpenException} for a
+ * while, instead of making the user wait for an API that is not working.
+ * Every request asks for gzip responses, which are decompressed as they are read, and large POST bodies can be sent
+ * compressed as well (see {@link #setRequestCompression}). The bytes sent and received are counted, both as they
+ * travel and once decompressed, to measure the compression.
  */
 public final class ApiHelper {
+    // Settings of the shared client, used the next time it is created
+    private static Duration connectTimeout = Duration.ofSeconds(10);
+    private static Duration readRequestTimeout = Duration.ofSeconds(5);
+    private static Duration writeRequestTimeout = Duration.ofSeconds(10);
+    private static HttpClient.Version version = HttpClient.Version.HTTP_2;
+    private static Executor executor;
+
+    // Client shared by all the helpers, null until it is first needed
+    private static HttpClient sharedClient;
+
+    // Circuit breaker of the requests, shared by all the helpers as they all talk to the same API
+    private static CircuitBreaker circuitBreaker = new CircuitBreaker(3, Duration.ofSeconds(2), Duration.ofSeconds(30));
+
+    // Cache of the GET responses, null if they are not cached
+    private static ResponseCache cache = new ResponseCache(Path.of("data/cache"));
+
+    // Minimum size of the POST bodies sent compressed, -1 to never compress them
+    private static int compressRequestsFrom = -1;
+
+    // Bytes sent and received, as they travel and once decompressed
+    private static final AtomicLong bytesSent = new AtomicLong();
+    private static final AtomicLong contentBytesSent = new AtomicLong();
+    private static final AtomicLong bytesReceived = new AtomicLong();
+    private static final AtomicLong contentBytesReceived = new AtomicLong();
+
     private final HttpClient client;
+    private final Duration readTimeout;
+    private final Duration writeTimeout;
+    private final CircuitBreaker breaker;
+    private final ResponseCache responses;
+    private final int compressFrom;
 
     /**
-     * Default constructor, where the client used for HTTPS communication is set up
+     * Default constructor, where the shared client used for HTTPS communication is set up if it wasn't yet
      *
      * @throws IOException If your computer doesn't support SSL at all. If you get this exception when calling the
      *                     constructor, contact the OOPD teachers.
      */
     public ApiHelper() throws IOException {
-        // We set up the HTTPClient we will (re)use across requests, with a custom *INSECURE* SSL context
-        try {
-            client = HttpClient.newBuilder().sslContext(insecureContext()).build();
-        } catch (NoSuchAlgorithmException | KeyManagementException e) {
-            // Exceptions are simplified for any classes that need to catch them
-            throw new IOException(e);
+        synchronized (ApiHelper.class) {
+            client = sharedClient();
+            readTimeout = readRequestTimeout;
+            writeTimeout = writeRequestTimeout;
+            breaker = circuitBreaker;
+            responses = cache;
+            compressFrom = compressRequestsFrom;
+        }
+    }
+
+    /**
+     * Method that changes the settings of the shared client. The current client is discarded, so a new one is
+     * created with them on the next request.
+     *
+     * @param connect  Maximum time to establish a connection.
+     * @param request  Maximum time to wait for the response of each request, both reads and writes.
+     * @param preferred HTTP version preferred, the client falls back to HTTP/1.1 if the server doesn't support HTTP/2.
+     * @param requests Executor where the asynchronous tasks of the client run, null to use the default one.
+     */
+    public static synchronized void configure(Duration connect, Duration request, HttpClient.Version preferred,
+                                              Executor requests) {
+        connectTimeout = connect;
+        readRequestTimeout = request;
+        writeRequestTimeout = request;
+        version = preferred;
+        executor = requests;
+        sharedClient = null;
+    }
+
+    /**
+     * Method that changes the maximum time to wait for the response of each kind of request. Reads are usually made
+     * while the user waits, so they should have a smaller budget than writes.
+     *
+     * @param read  Maximum time to wait for the whole response of a GET request, body included.
+     * @param write Maximum time to wait for the response of a POST or DELETE request.
+     */
+    public static synchronized void setTimeouts(Duration read, Duration write) {
+        readRequestTimeout = read;
+        writeRequestTimeout = write;
+    }
+
+    /**
+     * Method that changes the circuit breaker of the requests. Requests of the helpers created before keep using the
+     * previous one.
+     *
+     * @param breaker The circuit breaker to use.
+     */
+    public static synchronized void setCircuitBreaker(CircuitBreaker breaker) {
+        circuitBreaker = breaker;
+    }
+
+    /**
+     * Method that gets the circuit breaker of the requests.
+     *
+     * @return The circuit breaker in use.
+     */
+    public static synchronized CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Method that changes the directory where the GET responses are cached.
+     *
+     * @param directory Path of the directory, null to stop caching the responses.
+     */
+    public static synchronized void setCacheDirectory(Path directory) {
+        cache = directory == null ? null : new ResponseCache(directory);
+    }
+
+    /**
+     * Method that gets the number of GET requests answered from the cache, because the server answered that the
+     * content had not changed.
+     *
+     * @return The number of cache hits.
+     */
+    public static synchronized long getCacheHits() {
+        return cache == null ? 0 : cache.getHits();
+    }
+
+    /**
+     * Method that gets the number of GET requests where the server sent the whole content.
+     *
+     * @return The number of cache misses.
+     */
+    public static synchronized long getCacheMisses() {
+        return cache == null ? 0 : cache.getMisses();
+    }
+
+    /**
+     * Method that gets the number of reads of the API DAOs that didn't send a request, as they joined a read of the
+     * same URL already in flight (see {@link SingleFlight}).
+     *
+     * @return The number of reads collapsed into another one.
+     */
+    public static long getCollapsedReads() {
+        return SingleFlight.getCollapsedReads();
+    }
+
+    /**
+     * Method that sets from which size the bodies of the POST requests are sent compressed with gzip. It's disabled
+     * by default, as it needs a server that accepts compressed requests.
+     *
+     * @param minBytes Minimum size of the body in bytes to compress it, -1 to never compress them.
+     */
+    public static synchronized void setRequestCompression(int minBytes) {
+        compressRequestsFrom = minBytes;
+    }
+
+    /**
+     * Method that gets the number of bytes of the request bodies sent, as they travelled (compressed or not).
+     *
+     * @return The number of bytes sent.
+     */
+    public static long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    /**
+     * Method that gets the number of bytes of the request bodies sent, before compressing them.
+     *
+     * @return The number of bytes of content sent.
+     */
+    public static long getContentBytesSent() {
+        return contentBytesSent.get();
+    }
+
+    /**
+     * Method that gets the number of bytes of the response bodies received, as they travelled (compressed or not).
+     *
+     * @return The number of bytes received.
+     */
+    public static long getBytesReceived() {
+        return bytesReceived.get();
+    }
+
+    /**
+     * Method that gets the number of bytes of the response bodies received, once decompressed.
+     *
+     * @return The number of bytes of content received.
+     */
+    public static long getContentBytesReceived() {
+        return contentBytesReceived.get();
+    }
+
+    /**
+     * Method that sets the counters of bytes sent and received back to zero.
+     */
+    public static void resetTransferCounters() {
+        bytesSent.set(0);
+        contentBytesSent.set(0);
+        bytesReceived.set(0);
+        contentBytesReceived.set(0);
+    }
+
+    /**
+     * Helper function that gets the shared client, creating it with the current settings if needed.
+     * Callers must hold the lock of the class.
+     *
+     * @return The client shared by all the helpers.
+     * @throws IOException If the SSL context can't be set up.
+     */
+    private static HttpClient sharedClient() throws IOException {
+        if (sharedClient == null) {
+            // We set up the HTTPClient we will (re)use across requests, with a custom *INSECURE* SSL context
+            try {
+                HttpClient.Builder builder = HttpClient.newBuilder()
+                        .sslContext(insecureContext())
+                        .connectTimeout(connectTimeout)
+                        .version(version);
+                if (executor != null) {
+                    builder.executor(executor);
+                }
+                sharedClient = builder.build();
+            } catch (NoSuchAlgorithmException | KeyManagementException e) {
+                // Exceptions are simplified for any classes that need to catch them
+                throw new IOException(e);
+            }
+        }
+        return sharedClient;
+    }
+
+    /**
+     * Exception of the requests answered with an error status by the server.
+     */
+    public static final class StatusException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        /**
+         * Constructor of the exception.
+         *
+         * @param status The status code of the response.
+         */
+        public StatusException(int status) {
+            super("HTTP " + status);
+            this.status = status;
+        }
+
+        /**
+         * Method that gets the status code of the response.
+         *
+         * @return The status code.
+         */
+        public int getStatus() {
+            return status;
         }
+
+        /**
+         * Method that checks if a failure, or any of its causes, is an answer of the server saying the content was
+         * not found ("404 Not Found").
+         *
+         * @param failure The failure of the request.
+         * @return True if the content was not found, false otherwise.
+         */
+        public static boolean isNotFound(Throwable failure) {
+            for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+                if (cause instanceof StatusException && ((StatusException) cause).status == 404) return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Interface for the code that reads the body of a response as it arrives.
+     *
+     * @param <T> Type of the result of reading the body.
+     */
+    @FunctionalInterface
+    public interface BodyParser<T> {
+        /**
+         * Method that reads the body of a response.
+         *
+         * @param body Reader of the body, which receives the content as it arrives.
+         * @return The result of reading the body.
+         * @throws IOException If the body can't be read.
+         */
+        T parse(Reader body) throws IOException;
     }
 
     /**
@@ -47,21 +340,477 @@ public final class ApiHelper {
      * @throws IOException If the URL is malformed or the server can't be reached.
      */
     public String getFromUrl(String url) throws IOException {
-        try {
-            // Define the request
-            // The default method is GET, so we don't need to specify it (but we could do so by calling .GET() before .build())
-            // The HttpRequest.Builder pattern offers a ton of customization for the request (headers, body, HTTP version...)
-            HttpRequest request = HttpRequest.newBuilder().uri(new URI(url)).build();
+        return readFromUrl(url, ApiHelper::readAll);
+    }
 
-            // We use the default BodyHandler for Strings (so we can get the body of the response as a String)
-            // Note we could also send the request asynchronously, but things would escalate in terms of coding complexity
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    /**
+     * Method that reads the contents from a URL like {@link #getFromUrl}, but without blocking. The request is sent
+     * asynchronously and the returned future is completed with the response once it arrives.
+     *
+     * @param url A String representation of the URL to read from, which will be assumed to use HTTP/HTTPS.
+     * @return A future with the contents of the URL represented as text, completed exceptionally with an IOException
+     * if the URL is malformed or the server can't be reached.
+     */
+    public CompletableFuture<String> getFromUrlAsync(String url) {
+        return readFromUrlAsync(url, ApiHelper::readAll);
+    }
 
-            // Just return the body
-            return response.body();
-        } catch (URISyntaxException | IOException | InterruptedException e) {
+    /**
+     * Method that reads the contents from a URL with a GET request, giving them to a parser as they arrive instead of
+     * keeping the whole response in memory first.
+     *
+     * @param url    A String representation of the URL to read from, which will be assumed to use HTTP/HTTPS.
+     * @param parser The code that reads the body of the response.
+     * @param <T>    Type of the result of reading the body.
+     * @return The result of the parser.
+     * @throws IOException If the URL is malformed, the server can't be reached or the body can't be read.
+     */
+    public <T> T readFromUrl(String url, BodyParser<T> parser) throws IOException {
+        try {
+            return readFromUrlAsync(url, parser).join();
+        } catch (CompletionException e) {
             // Exceptions are simplified for any classes that need to catch them
-            throw new IOException(e);
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /**
+     * Method that reads the contents from a URL like {@link #readFromUrl}, but without blocking. The body is given
+     * to the parser in another thread as soon as the response starts arriving.
+     *
+     * @param url    A String representation of the URL to read from, which will be assumed to use HTTP/HTTPS.
+     * @param parser The code that reads the body of the response.
+     * @param <T>    Type of the result of reading the body.
+     * @return A future with the result of the parser, completed exceptionally with an IOException if the URL is
+     * malformed, the server can't be reached or the body can't be read.
+     */
+    public <T> CompletableFuture<T> readFromUrlAsync(String url, BodyParser<T> parser) {
+        try {
+            ResponseCache.Entry cached = responses == null ? null : responses.get(url);
+            HttpRequest request = conditionalGet(url, cached);
+            return readAsync(request, response -> parseGet(url, cached, response, parser));
+        } catch (URISyntaxException e) {
+            // Exceptions are simplified for any classes that need to catch them
+            return CompletableFuture.failedFuture(new IOException(e));
+        }
+    }
+
+    /**
+     * Helper function that sends a request if the circuit breaker allows it, recording its result in it.
+     *
+     * @param request The request to be sent.
+     * @param handler The handler of the body of the response.
+     * @param <T>     Type of the body of the response.
+     * @return The response of the server.
+     * @throws IOException          If the circuit breaker is open or the server can't be reached in time.
+     * @throws InterruptedException If the thread is interrupted while waiting for the response.
+     */
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler)
+            throws IOException, InterruptedException {
+        if (!breaker.tryAcquire()) {
+            throw new CircuitBreaker.OpenException();
+        }
+        long start = System.nanoTime();
+        try {
+            HttpResponse<T> response = client.send(request, handler);
+            record(start, response, null);
+            return response;
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            record(start, null, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Helper function that sends a request without blocking if the circuit breaker allows it, recording its result
+     * in it.
+     *
+     * @param request The request to be sent.
+     * @param handler The handler of the body of the response.
+     * @param <T>     Type of the body of the response.
+     * @return A future with the response of the server, completed exceptionally with an IOException if the circuit
+     * breaker is open or the server can't be reached in time.
+     */
+    private <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+                                                             HttpResponse.BodyHandler<T> handler) {
+        if (!breaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(new CircuitBreaker.OpenException());
+        }
+        long start = System.nanoTime();
+        return client.sendAsync(request, handler).whenComplete((response, e) -> record(start, response, e));
+    }
+
+    /**
+     * Interface for the code that reads the response to a GET request, body included.
+     *
+     * @param <T> Type of the result of reading the response.
+     */
+    @FunctionalInterface
+    private interface ResponseReader<T> {
+        /**
+         * Method that reads a response.
+         *
+         * @param response The response of the server, with its body still arriving.
+         * @return The result of reading the response.
+         * @throws IOException If the body can't be read.
+         */
+        T read(HttpResponse<InputStream> response) throws IOException;
+    }
+
+    /**
+     * Helper function that sends a GET request without blocking if the circuit breaker allows it, and reads its
+     * response in another thread as the body arrives. The whole read, body included, must finish within the read
+     * timeout: otherwise it fails with an HttpTimeoutException and the body is closed, so the reader stops waiting
+     * for a server that stalls. The result is recorded in the circuit breaker once the read has finished.
+     *
+     * @param request The request to be sent.
+     * @param reader  The code that reads the response.
+     * @param <T>     Type of the result of reading the response.
+     * @return A future with the result of the reader, completed exceptionally with an IOException if the circuit
+     * breaker is open, the server can't be reached or the body can't be read in time.
+     */
+    private <T> CompletableFuture<T> readAsync(HttpRequest request, ResponseReader<T> reader) {
+        if (!breaker.tryAcquire()) {
+            return CompletableFuture.failedFuture(new CircuitBreaker.OpenException());
+        }
+        long start = System.nanoTime();
+        AtomicInteger status = new AtomicInteger();
+        CompletableFuture<HttpResponse<InputStream>> sent =
+                client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+
+        // The reader blocks while the body arrives, so it must not run in the threads of the client
+        CompletableFuture<T> read = sent.thenApplyAsync(response -> {
+            status.set(response.statusCode());
+            try {
+                return reader.read(response);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+        CompletableFuture.delayedExecutor(readTimeout.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+            if (read.completeExceptionally(new HttpTimeoutException("The response was not read in time"))) {
+                // Closing the body wakes the reader up if it is waiting for it
+                sent.thenAccept(response -> close(response.body()));
+            }
+        });
+        return read.whenComplete((result, e) -> {
+            if (e != null || status.get() >= 500) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess(System.nanoTime() - start);
+            }
+        });
+    }
+
+    /**
+     * Helper function that closes the body of a response, ignoring the IOException as it is not read anymore.
+     *
+     * @param body The stream of the body.
+     */
+    private static void close(InputStream body) {
+        try {
+            body.close();
+        } catch (IOException ignored) {}
+    }
+
+    /**
+     * Helper function that records the result of a request in the circuit breaker. Server errors (status 500 or
+     * higher) count as failures, while any other answer shows the API is working.
+     *
+     * @param start    Moment the request was sent, in nanoseconds.
+     * @param response The response of the server, null if there is none.
+     * @param failure  The reason the request failed, null if it didn't.
+     */
+    private void record(long start, HttpResponse<?> response, Throwable failure) {
+        if (failure != null || response.statusCode() >= 500) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Helper function that defines a GET request, adding the validators of the cached response if there is one.
+     *
+     * @param url    A String representation of the URL to read from.
+     * @param cached The response cached for the URL, null if there is none.
+     * @return The request to be sent.
+     * @throws URISyntaxException If the URL is malformed.
+     */
+    private HttpRequest conditionalGet(String url, ResponseCache.Entry cached) throws URISyntaxException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder().uri(new URI(url)).timeout(readTimeout)
+                .header("Accept-Encoding", "gzip");
+        if (cached != null) {
+            if (cached.getEtag() != null) {
+                builder.header("If-None-Match", cached.getEtag());
+            }
+            if (cached.getLastModified() != null) {
+                builder.header("If-Modified-Since", cached.getLastModified());
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Helper function that reads the body of the response to a GET request with a parser. A "304 Not Modified"
+     * response is answered with the cached body, and the body of any other successful response is copied to the
+     * cache while the parser reads it.
+     *
+     * @param url      A String representation of the URL read.
+     * @param cached   The response cached for the URL when the request was sent, null if there was none.
+     * @param response The response of the server.
+     * @param parser   The code that reads the body.
+     * @param <T>      Type of the result of reading the body.
+     * @return The result of the parser.
+     * @throws IOException If the body can't be read.
+     */
+    private <T> T parseGet(String url, ResponseCache.Entry cached, HttpResponse<InputStream> response,
+                           BodyParser<T> parser) throws IOException {
+        try (InputStream body = open(response)) {
+            if (responses == null) {
+                return parser.parse(reader(body));
+            }
+            if (response.statusCode() == 304 && cached != null) {
+                responses.countHit();
+                try (Reader cachedBody = cached.openBody()) {
+                    return parser.parse(cachedBody);
+                }
+            }
+
+            responses.countMiss();
+            String etag = response.headers().firstValue("ETag").orElse(null);
+            String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+            if (response.statusCode() != 200 || (etag == null && lastModified == null)) {
+                return parser.parse(reader(body));
+            }
+
+            ResponseCache.Pending pending = responses.begin(url, etag, lastModified);
+            try {
+                TeeInputStream tee = new TeeInputStream(body, pending);
+                T result = parser.parse(reader(tee));
+                // The rest of the body is read as well, so the cached copy is complete
+                tee.transferTo(OutputStream.nullOutputStream());
+                if (tee.isCopied()) {
+                    pending.commit();
+                } else {
+                    pending.abort();
+                }
+                return result;
+            } catch (IOException | RuntimeException e) {
+                pending.abort();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Helper function that opens the body of a response, decompressing it if the server sent it with gzip and
+     * counting the bytes received.
+     *
+     * @param response The response of the server.
+     * @return The stream of the body, decompressed.
+     * @throws IOException If the compressed body can't be read.
+     */
+    private static InputStream open(HttpResponse<InputStream> response) throws IOException {
+        InputStream body = new CountingInputStream(response.body(), bytesReceived);
+        if (response.statusCode() != 304 && isGzip(response)) {
+            body = new GZIPInputStream(body);
+        }
+        return new CountingInputStream(body, contentBytesReceived);
+    }
+
+    /**
+     * Helper function that gets the body of a response as text, decompressing it if the server sent it with gzip and
+     * counting the bytes received.
+     *
+     * @param response The response of the server.
+     * @return The body represented as text.
+     * @throws IOException If the compressed body can't be read.
+     */
+    private static String text(HttpResponse<byte[]> response) throws IOException {
+        byte[] body = response.body();
+        bytesReceived.addAndGet(body.length);
+        if (body.length > 0 && isGzip(response)) {
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                body = in.readAllBytes();
+            }
+        }
+        contentBytesReceived.addAndGet(body.length);
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Helper function that tells if the body of a response is compressed with gzip.
+     *
+     * @param response The response of the server.
+     * @return True if it is compressed with gzip, false otherwise.
+     */
+    private static boolean isGzip(HttpResponse<?> response) {
+        return response.headers().firstValue("Content-Encoding").map(encoding -> encoding.equalsIgnoreCase("gzip"))
+                .orElse(false);
+    }
+
+    /**
+     * Helper function that defines a POST request with a JSON body, compressing it if it's large enough and
+     * counting the bytes sent.
+     *
+     * @param url  A String representation of the URL to post to.
+     * @param body The content to post.
+     * @return The request to be sent.
+     * @throws URISyntaxException If the URL is malformed.
+     * @throws IOException        If the body can't be compressed.
+     */
+    private HttpRequest post(String url, String body) throws URISyntaxException, IOException {
+        byte[] content = body.getBytes(StandardCharsets.UTF_8);
+        contentBytesSent.addAndGet(content.length);
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder().uri(new URI(url)).timeout(writeTimeout)
+                .headers("Content-Type", "application/json", "Accept-Encoding", "gzip");
+        if (compressFrom >= 0 && content.length >= compressFrom) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(content);
+            }
+            content = compressed.toByteArray();
+            builder.header("Content-Encoding", "gzip");
+        }
+        bytesSent.addAndGet(content.length);
+        return builder.POST(HttpRequest.BodyPublishers.ofByteArray(content)).build();
+    }
+
+    /**
+     * Helper function that defines a DELETE request.
+     *
+     * @param url A String representation of the URL to delete from.
+     * @return The request to be sent.
+     * @throws URISyntaxException If the URL is malformed.
+     */
+    private HttpRequest delete(String url) throws URISyntaxException {
+        return HttpRequest.newBuilder().uri(new URI(url)).timeout(writeTimeout).header("Accept-Encoding", "gzip").DELETE()
+                .build();
+    }
+
+    /**
+     * Helper function that creates a reader of a body in UTF-8.
+     *
+     * @param body The stream of the body.
+     * @return A buffered reader of the body.
+     */
+    private static Reader reader(InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Helper function that reads a whole body as text.
+     *
+     * @param body Reader of the body.
+     * @return The body represented as text.
+     * @throws IOException If the body can't be read.
+     */
+    private static String readAll(Reader body) throws IOException {
+        StringWriter text = new StringWriter();
+        body.transferTo(text);
+        return text.toString();
+    }
+
+    /**
+     * Stream that counts the bytes read from the body of a response.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        // Counter where the bytes read are added
+        private final AtomicLong counter;
+
+        /**
+         * Constructor of the stream.
+         *
+         * @param body    The stream of the body.
+         * @param counter The counter where the bytes read are added.
+         */
+        private CountingInputStream(InputStream body, AtomicLong counter) {
+            super(body);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                counter.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int read = super.read(bytes, offset, length);
+            if (read > 0) {
+                counter.addAndGet(read);
+            }
+            return read;
+        }
+    }
+
+    /**
+     * Stream that copies to the cache every byte read from the body of a response.
+     */
+    private static final class TeeInputStream extends FilterInputStream {
+        // Response being stored in the cache
+        private final ResponseCache.Pending pending;
+        // Whether every byte has been copied, false once a copy fails
+        private boolean copied = true;
+
+        /**
+         * Constructor of the stream.
+         *
+         * @param body    The stream of the body.
+         * @param pending The response being stored in the cache.
+         */
+        private TeeInputStream(InputStream body, ResponseCache.Pending pending) {
+            super(body);
+            this.pending = pending;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                copy(new byte[]{(byte) b}, 0, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int read = super.read(bytes, offset, length);
+            if (read > 0) {
+                copy(bytes, offset, read);
+            }
+            return read;
+        }
+
+        /**
+         * Helper function that copies bytes to the cache, stopping the copy if it fails.
+         *
+         * @param bytes  Array with the bytes read.
+         * @param offset Position of the first byte read.
+         * @param length Number of bytes read.
+         */
+        private void copy(byte[] bytes, int offset, int length) {
+            if (!copied) return;
+            try {
+                pending.write(bytes, offset, length);
+            } catch (IOException e) {
+                copied = false;
+            }
+        }
+
+        /**
+         * Method that tells if every byte read has been copied to the cache.
+         *
+         * @return True if the copy is complete, false if it failed.
+         */
+        private boolean isCopied() {
+            return copied;
         }
     }
 
@@ -78,12 +827,12 @@ public final class ApiHelper {
         try {
             // Define the request
             // In this case, we have to use the .POST() and .headers() methods to define what we want (to send a string containing JSON data)
-            HttpRequest request = HttpRequest.newBuilder().uri(new URI(url)).headers("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(body)).build();
+            HttpRequest request = post(url, body);
 
             // We could use a BodyHandler that discards the response body, but here we return the API's response
-            // Note we could also send the request asynchronously, but things would escalate in terms of coding complexity
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.body();
+            // The body is received as bytes, as it may come compressed
+            HttpResponse<byte[]> response = send(request, HttpResponse.BodyHandlers.ofByteArray());
+            return text(response);
         } catch (URISyntaxException | IOException | InterruptedException e) {
             // Exceptions are simplified for any classes that need to catch them
             throw new IOException(e);
@@ -103,25 +852,80 @@ public final class ApiHelper {
             // Define the request
             // The default method is GET, so we don't need to specify it (but we could do so by calling .GET() before .build())
             // The HttpRequest.Builder pattern offers a ton of customization for the request (headers, body, HTTP version...)
-            HttpRequest request = HttpRequest.newBuilder().uri(new URI(url)).DELETE().build();
+            HttpRequest request = delete(url);
 
-            // We use the default BodyHandler for Strings (so we can get the body of the response as a String)
-            // Note we could also send the request asynchronously, but things would escalate in terms of coding complexity
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.body();
+            // The body is received as bytes, as it may come compressed
+            HttpResponse<byte[]> response = send(request, HttpResponse.BodyHandlers.ofByteArray());
+            return text(response);
         } catch (URISyntaxException | IOException | InterruptedException e) {
             // Exceptions are simplified for any classes that need to catch them
             throw new IOException(e);
         }
     }
 
+    /**
+     * Method that posts contents to a URL like {@link #postToUrl}, but without blocking. Unlike it, error responses
+     * (status 400 or higher) are reported as failures, so the caller can know which requests did not succeed.
+     *
+     * @param url  A String representation of the URL to post to, which will be assumed to use HTTP/HTTPS.
+     * @param body The content to post, which will be sent to the server in the request body.
+     * @return A future with the contents of the response, completed exceptionally with an IOException if the URL is
+     * malformed, the server can't be reached or it answers with an error.
+     */
+    public CompletableFuture<String> postToUrlAsync(String url, String body) {
+        try {
+            HttpRequest request = post(url, body);
+            return sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).thenCompose(ApiHelper::checkStatus);
+        } catch (URISyntaxException | IOException e) {
+            // Exceptions are simplified for any classes that need to catch them
+            return CompletableFuture.failedFuture(new IOException(e));
+        }
+    }
+
+    /**
+     * Method that removes the contents from a URL like {@link #deleteFromUrl}, but without blocking. Unlike it, error
+     * responses (status 400 or higher) are reported as failures, so the caller can know which requests did not
+     * succeed.
+     *
+     * @param url A String representation of the URL to delete from, which will be assumed to use HTTP/HTTPS.
+     * @return A future with the contents of the response, completed exceptionally with an IOException if the URL is
+     * malformed, the server can't be reached or it answers with an error.
+     */
+    public CompletableFuture<String> deleteFromUrlAsync(String url) {
+        try {
+            HttpRequest request = delete(url);
+            return sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).thenCompose(ApiHelper::checkStatus);
+        } catch (URISyntaxException e) {
+            // Exceptions are simplified for any classes that need to catch them
+            return CompletableFuture.failedFuture(new IOException(e));
+        }
+    }
+
+    /**
+     * Helper function that turns error responses into failures.
+     *
+     * @param response The response of the server.
+     * @return A future with the body of the response, completed exceptionally with an IOException if the status is
+     * 400 or higher.
+     */
+    private static CompletableFuture<String> checkStatus(HttpResponse<byte[]> response) {
+        if (response.statusCode() >= 400) {
+            return CompletableFuture.failedFuture(new StatusException(response.statusCode()));
+        }
+        try {
+            return CompletableFuture.completedFuture(text(response));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     /**
      * Helper function that sets up a SSLContext designed to ignore certificates, accepting anything by default
      * NOT TO BE USED IN REAL PRODUCTION ENVIRONMENTS
      *
      * @return An instance of the SSLContext class, which manages SSL verifications, configured to accept even misconfigured certificates
      */
-    private SSLContext insecureContext() throws NoSuchAlgorithmException, KeyManagementException {
+    private static SSLContext insecureContext() throws NoSuchAlgorithmException, KeyManagementException {
         // We set up a TrustManager that accepts every certificate by default
         TrustManager[] insecureTrustManager = new TrustManager[]{new X509TrustManager() {
             // By not throwing any exceptions in these methods we're accepting everything
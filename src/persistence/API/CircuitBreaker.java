@@ -0,0 +1,137 @@
+package persistence.API;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * This class is a circuit breaker that protects the program from a remote API that stopped working properly. While it
+ * is closed every request is sent. After a number of consecutive requests fail or are too slow it opens, and for a
+ * while no request is sent at all, so they fail at once instead of waiting for the API. When that time passes it is
+ * half-open: a single request is let through as a probe, closing it again if it succeeds or opening it for another
+ * while if it does not.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+public final class CircuitBreaker {
+    /**
+     * States of the circuit breaker.
+     */
+    public enum State {
+        /**
+         * Every request is sent.
+         */
+        CLOSED,
+        /**
+         * No request is sent.
+         */
+        OPEN,
+        /**
+         * A single request is sent to check if the API works again.
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * Exception of the requests that are not sent because the circuit breaker is open.
+     */
+    public static final class OpenException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Constructor of the exception.
+         */
+        public OpenException() {
+            super("The circuit breaker of the API is open");
+        }
+    }
+
+    // number of consecutive failed or slow requests that open the circuit breaker.
+    private final int failureThreshold;
+    // time in nanoseconds from which a request is considered slow.
+    private final long slowCallNanos;
+    // time in nanoseconds the circuit breaker stays open before letting a probe through.
+    private final long openNanos;
+
+    // current state.
+    private State state = State.CLOSED;
+    // number of consecutive failed or slow requests while closed.
+    private int failures;
+    // moment in nanoseconds when it was opened.
+    private long openedAt;
+    // whether the probe of the half-open state has been sent and has not finished yet.
+    private boolean probing;
+
+    /**
+     * Constructor with the parameters to create a circuit breaker, which starts closed.
+     * @param failureThreshold integer with the number of consecutive failed or slow requests that open it.
+     * @param slowCall time from which a request is considered slow.
+     * @param openTime time it stays open before letting a probe through.
+     */
+    public CircuitBreaker(int failureThreshold, Duration slowCall, Duration openTime) {
+        this.failureThreshold = failureThreshold;
+        this.slowCallNanos = slowCall.toNanos();
+        this.openNanos = openTime.toNanos();
+    }
+
+    /**
+     * Method to ask for permission to send a request. Every request allowed must be followed by a call to
+     * {@link #onSuccess} or {@link #onFailure} once it finishes.
+     * @return true if the request can be sent, false if it must fail at once.
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED -> {
+                return true;
+            }
+            case OPEN -> {
+                if (System.nanoTime() - openedAt < openNanos) return false;
+                state = State.HALF_OPEN;
+                probing = true;
+                return true;
+            }
+            default -> {
+                if (probing) return false;
+                probing = true;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Method to record a request that got an answer from the API. If it took too long it counts as a failure.
+     * @param elapsedNanos long with the time the request took in nanoseconds.
+     */
+    public synchronized void onSuccess(long elapsedNanos) {
+        if (elapsedNanos >= slowCallNanos) {
+            onFailure();
+            return;
+        }
+        failures = 0;
+        if (state == State.HALF_OPEN) {
+            state = State.CLOSED;
+            probing = false;
+        }
+    }
+
+    /**
+     * Method to record a request that failed: the API could not be reached, it did not answer in time or it
+     * answered with a server error.
+     */
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN || (state == State.CLOSED && ++failures >= failureThreshold)) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            failures = 0;
+            probing = false;
+        }
+    }
+
+    /**
+     * Method to get the current state of the circuit breaker.
+     * @return the state, open until a request asks for permission once the open time has passed.
+     */
+    public synchronized State getState() {
+        return state;
+    }
+}
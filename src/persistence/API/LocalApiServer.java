@@ -0,0 +1,526 @@
+package persistence.API;
+
+import business.entities.Adventure;
+import business.entities.Characters.Adventurer;
+import business.entities.Characters.CharacterGame;
+import business.entities.Encounter;
+import business.entities.Monsters.Monster;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import persistence.AdventureDAO;
+import persistence.CharacterDAO;
+import persistence.JSON.CachedCharacterDAO;
+import persistence.JSON.JSONAdventureDAO;
+import persistence.JSON.JSONCharacterDAO;
+import persistence.JSON.JSONMonsterDAO;
+import persistence.MonsterDAO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This class is a local HTTP server that stands in for the remote API, so the API DAOs can be run and measured
+ * without it. It serves the same routes (characters, adventures and monsters) from the json files of the data
+ * folder, through the JSON DAOs. Every request can be delayed and made to fail following a profile {@link Profile},
+ * so the API path can be measured under reproducible network conditions.
+ * GET responses carry an ETag, and requests with a matching If-None-Match header are answered with
+ * "304 Not Modified".
+ * Like a usual web server, bodies are sent compressed with gzip to the clients that accept it, and requests with a
+ * body compressed with gzip are accepted too.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+public class LocalApiServer {
+    /**
+     * Minimum size in bytes of the response bodies sent compressed, smaller ones don't save enough to be worth it.
+     */
+    private static final int MIN_COMPRESSED_SIZE = 512;
+
+    /**
+     * Class to represent the conditions every request is served with: a delay of a fixed time plus a random time up
+     * to a jitter, and a probability of failing with "503 Service Unavailable". The random values come from a seed,
+     * so the same profile gives the same sequence of delays and failures.
+     */
+    public static final class Profile {
+        /**
+         * Profile without delays nor failures.
+         */
+        public static final Profile NONE = new Profile(0, 0, 0, 0);
+
+        // fixed delay of every request in milliseconds.
+        private final long latency;
+        // maximum random delay added to the fixed one in milliseconds.
+        private final long jitter;
+        // probability of a request failing, from 0 to 1.
+        private final double failureRate;
+        // seed of the random values.
+        private final long seed;
+
+        /**
+         * Constructor with the parameters to create a profile.
+         * @param latency long with the fixed delay of every request in milliseconds.
+         * @param jitter long with the maximum random delay added to the fixed one in milliseconds.
+         * @param failureRate double with the probability of a request failing, from 0 to 1.
+         * @param seed long with the seed of the random values.
+         */
+        public Profile(long latency, long jitter, double failureRate, long seed) {
+            this.latency = latency;
+            this.jitter = jitter;
+            this.failureRate = failureRate;
+            this.seed = seed;
+        }
+    }
+
+    /**
+     * Server that receives the requests.
+     */
+    private final HttpServer server;
+
+    /**
+     * Threads where the requests are served.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Conditions the requests are served with.
+     */
+    private final Profile profile;
+
+    /**
+     * Random values of the profile.
+     */
+    private final Random random;
+
+    /**
+     * A gson instance to write the monsters and adventures and read the requests.
+     */
+    private final Gson gson;
+
+    /**
+     * A gson instance to write the characters, only with their persisted traits.
+     */
+    private final Gson characterGson;
+
+    /**
+     * DAO of the monsters served.
+     */
+    private final MonsterDAO monsters;
+
+    /**
+     * DAO of the characters served.
+     */
+    private final CharacterDAO characters;
+
+    /**
+     * DAO of the adventures served.
+     */
+    private final AdventureDAO adventures;
+
+    /**
+     * Constructor to create a LocalApiServer. It does not receive requests until it is started.
+     * @param port integer with the port to listen to, 0 to use any free one.
+     * @param profile conditions the requests are served with.
+     * @throws IOException if the server can not listen to the port.
+     */
+    public LocalApiServer(int port, Profile profile) throws IOException {
+        // Without it, the responses on reused connections are delayed until the client acknowledges the headers
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        this.executor = Executors.newFixedThreadPool(8);
+        this.profile = profile;
+        this.random = new Random(profile.seed);
+        this.gson = new Gson();
+        this.characterGson = new GsonBuilder().excludeFieldsWithoutExposeAnnotation().create();
+        this.monsters = new JSONMonsterDAO();
+        this.characters = new CachedCharacterDAO();
+        this.adventures = new JSONAdventureDAO();
+
+        server.createContext(ApiEndpoints.CHARACTERS_PATH, exchange -> serve(exchange, this::characters));
+        server.createContext(ApiEndpoints.ADVENTURES_PATH, exchange -> serve(exchange, this::adventures));
+        server.createContext(ApiEndpoints.MONSTERS_PATH, exchange -> serve(exchange, this::monsters));
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Method to start receiving requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Method to stop receiving requests, waiting for the ones being served.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+        characters.flush();
+        adventures.flush();
+    }
+
+    /**
+     * Method to get the base URL to give to the API DAOs {@link ApiEndpoints} to use this server.
+     * @return string with the base URL.
+     */
+    public String getBaseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Interface for the code that serves the requests of a route.
+     */
+    @FunctionalInterface
+    private interface Route {
+        /**
+         * Method to serve a request.
+         * @param method string with the method of the request.
+         * @param query map with the parameters of the query of the request.
+         * @param body string with the body of the request.
+         * @return the response to be sent.
+         */
+        Response handle(String method, Map<String, String> query, String body);
+    }
+
+    /**
+     * Class to represent a response: its status and its body.
+     */
+    private static final class Response {
+        // status code of the response.
+        private final int status;
+        // body of the response.
+        private final String body;
+
+        /**
+         * Constructor with the parameters to create a response.
+         * @param status integer with the status code.
+         * @param body string with the body, empty if there is none.
+         */
+        private Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Method to serve a request, applying the delay and failures of the profile.
+     * @param exchange request received and its response.
+     * @param route code that serves the requests of the route.
+     * @throws IOException if the response can not be sent.
+     */
+    private void serve(HttpExchange exchange, Route route) throws IOException {
+        try (exchange) {
+            long delay;
+            boolean fail;
+            synchronized (random) {
+                delay = profile.latency + (profile.jitter > 0 ? (long) (random.nextDouble() * profile.jitter) : 0);
+                fail = profile.failureRate > 0 && random.nextDouble() < profile.failureRate;
+            }
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+            if (fail) {
+                send(exchange, new Response(503, ""));
+                return;
+            }
+
+            String body = readBody(exchange);
+            Response response;
+            synchronized (this) {
+                response = route.handle(exchange.getRequestMethod(), parseQuery(exchange.getRequestURI().getRawQuery()),
+                        body);
+            }
+            send(exchange, response);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            send(exchange, new Response(500, ""));
+        }
+    }
+
+    /**
+     * Method to send a response. The body of the successful GET requests is sent with its ETag, or not sent at all if
+     * it matches the one in the If-None-Match header.
+     * @param exchange request received and its response.
+     * @param response response to be sent.
+     * @throws IOException if the response can not be sent.
+     */
+    private void send(HttpExchange exchange, Response response) throws IOException {
+        byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+
+        if (response.status == 200 && exchange.getRequestMethod().equals("GET")) {
+            String etag = "\"" + hash(body) + "\"";
+            exchange.getResponseHeaders().set("ETag", etag);
+            exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        if (body.length >= MIN_COMPRESSED_SIZE && acceptsGzip(exchange)) {
+            body = gzip(body);
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(response.status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * Method to read the body of a request, decompressing it if it was sent with gzip.
+     * @param exchange request received and its response.
+     * @return string with the body of the request.
+     * @throws IOException if the body can not be read.
+     */
+    private static String readBody(HttpExchange exchange) throws IOException {
+        InputStream body = exchange.getRequestBody();
+        if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+            body = new GZIPInputStream(body);
+        }
+        return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Method to check if the client of a request accepts bodies compressed with gzip.
+     * @param exchange request received and its response.
+     * @return true if it accepts gzip, false if it does not.
+     */
+    private static boolean acceptsGzip(HttpExchange exchange) {
+        List<String> accepted = exchange.getRequestHeaders().get("Accept-Encoding");
+        if (accepted == null) return false;
+
+        for (String header : accepted) {
+            for (String encoding : header.split(",")) {
+                String name = encoding.trim();
+                if (name.equalsIgnoreCase("gzip") || name.toLowerCase().startsWith("gzip;") && !name.endsWith("q=0")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Method to compress a body with gzip.
+     * @param body array of bytes with the body.
+     * @return array of bytes with the compressed body.
+     * @throws IOException if the body can not be compressed.
+     */
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Method to serve the requests of the characters: GET lists them, POST adds one and DELETE removes the one in
+     * the "name" parameter.
+     * @param method string with the method of the request.
+     * @param query map with the parameters of the query of the request.
+     * @param body string with the body of the request.
+     * @return the response to be sent.
+     */
+    private Response characters(String method, Map<String, String> query, String body) {
+        switch (method) {
+            case "GET" -> {
+                List<CharacterGame> list = characters.read();
+                return list == null ? new Response(500, "") : new Response(200, characterGson.toJson(list));
+            }
+            case "POST" -> {
+                CharacterGame character = parseCharacter(body);
+                if (character == null) return new Response(400, "");
+                if (characters.find(character.getName()) != null) {
+                    characters.deleteCharacter(character);
+                }
+                characters.addCharacter(character);
+                return new Response(201, characterGson.toJson(character));
+            }
+            case "DELETE" -> {
+                CharacterGame character = query.containsKey("name") ? characters.find(query.get("name")) : null;
+                if (character == null) return new Response(404, "");
+                characters.deleteCharacter(character);
+                return new Response(200, "");
+            }
+            default -> {
+                return new Response(405, "");
+            }
+        }
+    }
+
+    /**
+     * Method to serve the requests of the adventures: GET lists them, with the monsters of each encounter, and POST
+     * adds one.
+     * @param method string with the method of the request.
+     * @param query map with the parameters of the query of the request.
+     * @param body string with the body of the request.
+     * @return the response to be sent.
+     */
+    private Response adventures(String method, Map<String, String> query, String body) {
+        switch (method) {
+            case "GET" -> {
+                List<Adventure> list = adventures.read();
+                return list == null ? new Response(500, "") : new Response(200, gson.toJson(withMonsters(list)));
+            }
+            case "POST" -> {
+                Adventure adventure;
+                try {
+                    adventure = gson.fromJson(body, Adventure.class);
+                } catch (JsonParseException e) {
+                    return new Response(400, "");
+                }
+                if (adventure == null || adventure.getName() == null) return new Response(400, "");
+
+                List<Adventure> list = adventures.read();
+                if (list == null) return new Response(500, "");
+                list.add(adventure);
+                adventures.write(list);
+                adventures.flush();
+                return new Response(201, body);
+            }
+            default -> {
+                return new Response(405, "");
+            }
+        }
+    }
+
+    /**
+     * Method to serve the requests of the monsters: GET lists them.
+     * @param method string with the method of the request.
+     * @param query map with the parameters of the query of the request.
+     * @param body string with the body of the request.
+     * @return the response to be sent.
+     */
+    private Response monsters(String method, Map<String, String> query, String body) {
+        if (!method.equals("GET")) return new Response(405, "");
+
+        List<Monster> list = monsters.read();
+        return list == null ? new Response(500, "") : new Response(200, gson.toJson(list));
+    }
+
+    /**
+     * Method to create the monsters of the encounters of the adventures, as the remote API sends them with them.
+     * @param list list of adventure {@link Adventure} instances read from the json file.
+     * @return a list with the same adventures with the monsters of each encounter.
+     */
+    private List<Adventure> withMonsters(List<Adventure> list) {
+        Map<String, Monster> byName = new HashMap<>();
+        List<Monster> all = monsters.read();
+        if (all != null) {
+            for (Monster monster : all) {
+                byName.putIfAbsent(monster.getName(), monster);
+            }
+        }
+
+        List<Adventure> result = new ArrayList<>(list.size());
+        for (Adventure adventure : list) {
+            List<Encounter> encounters = new ArrayList<>();
+            for (Encounter encounter : adventure.getEncounters()) {
+                List<Monster> encounterMonsters = new ArrayList<>();
+                for (int i = 0; i < encounter.getMonsterTypes().size(); i++) {
+                    Monster monster = byName.get(encounter.getMonsterTypes().get(i));
+                    for (int j = 0; monster != null && j < encounter.getAmount().get(i); j++) {
+                        encounterMonsters.add(monster);
+                    }
+                }
+                encounters.add(new Encounter(encounter.getMonsterTypes(), encounter.getAmount(), encounterMonsters));
+            }
+            result.add(new Adventure(adventure.getName(), adventure.getNumEncounters(), encounters));
+        }
+        return result;
+    }
+
+    /**
+     * Method to create a character {@link CharacterGame} of the right class from the body of a request.
+     * @param body string with the character in json.
+     * @return the character, null if it can not be read or its class is unknown.
+     */
+    private CharacterGame parseCharacter(String body) {
+        try {
+            CharacterGame character = gson.fromJson(body, Adventurer.class);
+            if (character == null || character.getName() == null || character.getClassType() == null) return null;
+            return JSONCharacterDAO.create(character);
+        } catch (JsonParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Method to read the parameters of the query of a request.
+     * @param rawQuery string with the query, still encoded, null if there is none.
+     * @return a map with the value of each parameter.
+     */
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null) return parameters;
+
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * Method to get the hash of a body, used as its ETag.
+     * @param body array of bytes with the body.
+     * @return string with the hash in hexadecimal.
+     */
+    private static String hash(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Method to run the server from the command line, serving the data folder of the current directory until the
+     * process is stopped. The API DAOs use it when the program is run with the "simplerpg.api.url" system property
+     * set to the URL printed.
+     * @param args port (8080 by default), latency and jitter in milliseconds, failure rate and seed, all optional.
+     * @throws IOException if the server can not listen to the port.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        Profile profile = new Profile(args.length > 1 ? Long.parseLong(args[1]) : 0,
+                args.length > 2 ? Long.parseLong(args[2]) : 0,
+                args.length > 3 ? Double.parseDouble(args[3]) : 0,
+                args.length > 4 ? Long.parseLong(args[4]) : 0);
+
+        LocalApiServer server = new LocalApiServer(port, profile);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        server.start();
+        System.out.println("Serving the data folder at " + server.getBaseUrl());
+    }
+}
@@ -0,0 +1,109 @@
+package persistence.API;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * This class is to measure how long a read of the API takes through the API DAOs {@link APIMonsterDAO}, against a
+ * local stand-in server {@link LocalApiServer} serving the data folder. The reads are timed twice: building a new
+ * client before each one, as every helper did before the client was shared, and with a single shared client, where
+ * the first read is cold (it opens the connection) and the rest are warm (they reuse it). The response cache is
+ * disabled, so every read receives the whole body.
+ * It is run on its own, as "java persistence.API.ReadLatencyCheck [reads]", from the folder that contains "data".
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+public final class ReadLatencyCheck {
+    /**
+     * Maximum time to connect and to wait for each request, the same as the default one of the helpers.
+     */
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * Constructor hidden, as the class is only run.
+     */
+    private ReadLatencyCheck() {}
+
+    /**
+     * Method to run the measurement.
+     * @param args the number of reads timed each way, 100 by default.
+     * @throws IOException if the stand-in server can not be started.
+     */
+    public static void main(String[] args) throws IOException {
+        int reads = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+
+        LocalApiServer server = new LocalApiServer(0, LocalApiServer.Profile.NONE);
+        server.start();
+        ApiEndpoints.setBaseUrl(server.getBaseUrl());
+        ApiHelper.setCacheDirectory(null);
+
+        try {
+            if (new APIMonsterDAO().read() == null) {
+                System.out.println("The monsters could not be read from the stand-in server.");
+                System.exit(1);
+            }
+
+            long[] perRead = new long[reads];
+            for (int i = 0; i < reads; i++) {
+                configure();
+                perRead[i] = timeRead();
+            }
+
+            configure();
+            long cold = timeRead();
+            long[] warm = new long[reads];
+            for (int i = 0; i < reads; i++) {
+                warm[i] = timeRead();
+            }
+
+            System.out.println("Reads timed each way: " + reads);
+            System.out.println("New client per read: " + describe(perRead));
+            System.out.println("Shared client, cold: " + millis(cold) + " ms");
+            System.out.println("Shared client, warm: " + describe(warm));
+        } finally {
+            server.stop();
+        }
+    }
+
+    /**
+     * Method to discard the shared client, so the next read builds a new one.
+     */
+    private static void configure() {
+        ApiHelper.configure(TIMEOUT, TIMEOUT, HttpClient.Version.HTTP_2, null);
+    }
+
+    /**
+     * Method to time a read of the monsters.
+     * @return long with the time the read took in nanoseconds.
+     */
+    private static long timeRead() {
+        long start = System.nanoTime();
+        new APIMonsterDAO().read();
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Method to describe a series of times.
+     * @param times array with the times in nanoseconds.
+     * @return a string with the median, the 90th percentile and the mean of the times in milliseconds.
+     */
+    private static String describe(long[] times) {
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        double mean = Arrays.stream(sorted).average().orElse(0);
+        return "median " + millis(sorted[sorted.length / 2]) + " ms, p90 " + millis(sorted[sorted.length * 9 / 10])
+                + " ms, mean " + millis(mean) + " ms";
+    }
+
+    /**
+     * Method to convert a time to milliseconds.
+     * @param nanos time in nanoseconds.
+     * @return a string with the time in milliseconds, with two decimals.
+     */
+    private static String millis(double nanos) {
+        return String.format("%.2f", nanos / 1e6);
+    }
+}
@@ -0,0 +1,270 @@
+package persistence.API;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is to keep on disk the last response of each URL read through the API, together with the validators
+ * (ETag and Last-Modified) the server sent with it, so the next request can ask the server to answer with
+ * "304 Not Modified" instead of the whole content if it has not changed.
+ * Each response is stored in its own file, named after the hash of the URL: the ETag in the first line, the
+ * Last-Modified date in the second one (empty lines if the server did not send them) and the body after them.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+final class ResponseCache {
+    /**
+     * Class to represent a response stored in the cache. Its body is not read until it is needed.
+     */
+    static final class Entry {
+        // ETag of the response, null if the server did not send it.
+        private final String etag;
+        // Last-Modified date of the response, null if the server did not send it.
+        private final String lastModified;
+        // file where the response is stored.
+        private final Path file;
+
+        /**
+         * Constructor with the parameters to create an entry.
+         * @param etag string with the ETag of the response, null if there is none.
+         * @param lastModified string with the Last-Modified date of the response, null if there is none.
+         * @param file path of the file where the response is stored.
+         */
+        private Entry(String etag, String lastModified, Path file) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.file = file;
+        }
+
+        /**
+         * Method to get the ETag of the response.
+         * @return the ETag, null if there is none.
+         */
+        String getEtag() {return etag;}
+
+        /**
+         * Method to get the Last-Modified date of the response.
+         * @return the Last-Modified date, null if there is none.
+         */
+        String getLastModified() {return lastModified;}
+
+        /**
+         * Method to open the body of the response to read it as it is needed.
+         * @return a reader positioned at the beginning of the body.
+         * @throws IOException if the file can not be read.
+         */
+        Reader openBody() throws IOException {
+            BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+            try {
+                reader.readLine();
+                reader.readLine();
+                return reader;
+            } catch (IOException e) {
+                reader.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Method to read the whole body of the response.
+         * @return the body.
+         * @throws IOException if the file can not be read.
+         */
+        String getBody() throws IOException {
+            try (Reader reader = openBody()) {
+                StringWriter body = new StringWriter();
+                reader.transferTo(body);
+                return body.toString();
+            }
+        }
+    }
+
+    /**
+     * Class to store a response in the cache while it is being received. The body is written to a temporary file,
+     * which replaces the stored response only when it is complete.
+     */
+    final class Pending {
+        // URL of the response.
+        private final String url;
+        // temporary file where the response is written.
+        private final Path temp;
+        // stream of the temporary file.
+        private final OutputStream out;
+
+        /**
+         * Constructor to start storing a response.
+         * @param url string with the URL.
+         * @param etag string with the ETag of the response, null if there is none.
+         * @param lastModified string with the Last-Modified date of the response, null if there is none.
+         * @throws IOException if the temporary file can not be created.
+         */
+        private Pending(String url, String etag, String lastModified) throws IOException {
+            this.url = url;
+            Files.createDirectories(directory);
+            this.temp = Files.createTempFile(directory, fileOf(url).getFileName().toString(), ".tmp");
+            this.out = new BufferedOutputStream(Files.newOutputStream(temp));
+            out.write(((etag == null ? "" : etag) + "\n" + (lastModified == null ? "" : lastModified) + "\n")
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Method to write a part of the body.
+         * @param bytes array with the bytes of the body.
+         * @param offset integer with the position of the first byte to be written.
+         * @param length integer with the number of bytes to be written.
+         * @throws IOException if the temporary file can not be written.
+         */
+        void write(byte[] bytes, int offset, int length) throws IOException {
+            out.write(bytes, offset, length);
+        }
+
+        /**
+         * Method to replace the stored response with this one, once the whole body has been written.
+         * @throws IOException if the temporary file can not be moved.
+         */
+        void commit() throws IOException {
+            out.close();
+            Files.move(temp, fileOf(url), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        /**
+         * Method to discard the response, keeping the stored one. The IOException is ignored, as the temporary
+         * file is not used anymore.
+         */
+        void abort() {
+            try {
+                out.close();
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {}
+        }
+    }
+
+    /**
+     * Directory where the responses are stored.
+     */
+    private final Path directory;
+
+    /**
+     * Number of requests answered from the cache.
+     */
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * Number of requests that had to download the whole content.
+     */
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Constructor to create a cache.
+     * @param directory path of the directory where the responses are stored, created when the first one is stored.
+     */
+    ResponseCache(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Method to get the response stored for a URL.
+     * @param url string with the URL.
+     * @return the entry with the response, null if there is none or it can not be read.
+     */
+    Entry get(String url) {
+        Path file = fileOf(url);
+        if (!Files.exists(file)) return null;
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String etag = reader.readLine();
+            String lastModified = reader.readLine();
+            if (etag == null || lastModified == null) return null;
+
+            return new Entry(etag.isEmpty() ? null : etag, lastModified.isEmpty() ? null : lastModified, file);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Method to store the response of a URL, replacing the previous one. The IOException is ignored, the response
+     * is downloaded again on the next request.
+     * @param url string with the URL.
+     * @param etag string with the ETag of the response, null if there is none.
+     * @param lastModified string with the Last-Modified date of the response, null if there is none.
+     * @param body string with the body of the response.
+     */
+    void put(String url, String etag, String lastModified, String body) {
+        try {
+            Pending pending = begin(url, etag, lastModified);
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            pending.write(bytes, 0, bytes.length);
+            pending.commit();
+        } catch (IOException ignored) {}
+    }
+
+    /**
+     * Method to start storing the response of a URL while it is being received.
+     * @param url string with the URL.
+     * @param etag string with the ETag of the response, null if there is none.
+     * @param lastModified string with the Last-Modified date of the response, null if there is none.
+     * @return the response being stored, to write its body and commit it.
+     * @throws IOException if the response can not be stored.
+     */
+    Pending begin(String url, String etag, String lastModified) throws IOException {
+        return new Pending(url, etag, lastModified);
+    }
+
+    /**
+     * Method to count a request answered from the cache.
+     */
+    void countHit() {
+        hits.incrementAndGet();
+    }
+
+    /**
+     * Method to count a request that downloaded the whole content.
+     */
+    void countMiss() {
+        misses.incrementAndGet();
+    }
+
+    /**
+     * Method to get the number of requests answered from the cache.
+     * @return long with the number of hits.
+     */
+    long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Method to get the number of requests that downloaded the whole content.
+     * @return long with the number of misses.
+     */
+    long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Method to get the file where the response of a URL is stored.
+     * @param url string with the URL.
+     * @return the path of the file.
+     */
+    private Path fileOf(String url) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(hash));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package persistence.API;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * This class collapses the concurrent reads of the same URL made through a DAO into a single request: the first read
+ * sends it, and the ones made while it is in flight wait for its result instead of sending their own. Each read gets
+ * its own copy of the result, so the objects read can be modified without affecting the other readers.
+ * Writes made through the DAO must call {@link #invalidate()} once they finish, so the reads made after them do not
+ * join a request sent before the write, which could return the data as it was.
+ *
+ * @param <T> Type of the result of the reads.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+final class SingleFlight<T> {
+    /**
+     * Class to represent a read in flight: its result and the number of writes finished when it started.
+     *
+     * @param <T> Type of the result of the read.
+     */
+    private static final class Flight<T> {
+        // result of the read.
+        private final CompletableFuture<T> result;
+        // number of writes finished when the read started.
+        private final long writes;
+
+        /**
+         * Constructor with the parameters to create a flight.
+         * @param writes long with the number of writes finished when the read started.
+         */
+        private Flight(long writes) {
+            this.result = new CompletableFuture<>();
+            this.writes = writes;
+        }
+    }
+
+    /**
+     * Number of reads that joined a read in flight instead of sending a request, in all the DAOs.
+     */
+    private static final AtomicLong collapsedReads = new AtomicLong();
+
+    /**
+     * Code that copies a result for each read.
+     */
+    private final Function<T, T> snapshot;
+
+    /**
+     * Reads in flight, by URL.
+     */
+    private final Map<String, Flight<T>> flights;
+
+    /**
+     * Number of writes finished.
+     */
+    private long writes;
+
+    /**
+     * Constructor to create a SingleFlight.
+     * @param snapshot code that copies a result, so each read gets its own objects.
+     */
+    SingleFlight(Function<T, T> snapshot) {
+        this.snapshot = snapshot;
+        this.flights = new HashMap<>();
+    }
+
+    /**
+     * Method to get the number of reads that didn't send a request, as they joined a read of the same URL in flight.
+     * @return long with the number of reads collapsed into another one.
+     */
+    static long getCollapsedReads() {
+        return collapsedReads.get();
+    }
+
+    /**
+     * Method to read a URL, joining the read in flight of the same URL if there is one and no write has finished
+     * since it started.
+     * @param url string with the URL read.
+     * @param reader code that sends the request, if no read can be joined.
+     * @return future with a copy of the result of the read, null if the result is null.
+     */
+    CompletableFuture<T> read(String url, Supplier<CompletableFuture<T>> reader) {
+        Flight<T> flight;
+        boolean leader = false;
+        synchronized (this) {
+            flight = flights.get(url);
+            if (flight == null || flight.writes != writes) {
+                flight = new Flight<>(writes);
+                flights.put(url, flight);
+                leader = true;
+            }
+        }
+
+        if (leader) {
+            Flight<T> started = flight;
+            reader.get().whenComplete((result, e) -> {
+                synchronized (this) {
+                    flights.remove(url, started);
+                }
+                if (e != null) {
+                    started.result.completeExceptionally(e);
+                } else {
+                    started.result.complete(result);
+                }
+            });
+        } else {
+            collapsedReads.incrementAndGet();
+        }
+        return flight.result.thenApply(result -> result == null ? null : snapshot.apply(result));
+    }
+
+    /**
+     * Method to record that a write has finished, so the reads in flight are not joined any more.
+     */
+    synchronized void invalidate() {
+        writes++;
+    }
+}
@@ -0,0 +1,370 @@
+package persistence.API;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * This class keeps the records changed locally that still have to be sent to the API, and sends them in the
+ * background. Only the last change of each record is kept (an add followed by a delete cancels out, an add followed by
+ * an update is still an add...), so only the differences are sent. The changes are stored in a file, so the ones not
+ * sent are not lost when the program is closed, and failed sends are retried later, waiting longer each time.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+final class SyncQueue {
+    /**
+     * Changes that can be made to a record.
+     */
+    enum Operation {
+        /**
+         * The record is new.
+         */
+        ADD,
+        /**
+         * The record already existed and has been modified.
+         */
+        UPDATE,
+        /**
+         * The record has been removed.
+         */
+        DELETE
+    }
+
+    /**
+     * Interface for the code that sends a change to the API.
+     */
+    @FunctionalInterface
+    interface Sender {
+        /**
+         * Method to send a change to the API without blocking.
+         * @param api helper used to send the requests.
+         * @param name string with the name of the record changed.
+         * @param operation change made to the record.
+         * @return future completed when the change has been sent, exceptionally if it could not be sent.
+         */
+        CompletableFuture<?> send(ApiHelper api, String name, Operation operation);
+    }
+
+    /**
+     * Maximum number of changes sent at the same time.
+     */
+    private static final int MAX_PARALLEL_SENDS = 8;
+
+    /**
+     * Time waited before retrying after a failed send, in milliseconds. It is doubled after each failure.
+     */
+    private static final long FIRST_RETRY_DELAY = 1000;
+
+    /**
+     * Maximum time waited before retrying, in milliseconds.
+     */
+    private static final long MAX_RETRY_DELAY = 60000;
+
+    /**
+     * Class to represent a change waiting to be sent: the operation and the number of the change, to know if the
+     * record has been changed again while it was being sent.
+     */
+    private static final class Change {
+        // change made to the record.
+        private final Operation operation;
+        // number of the change.
+        private final long sequence;
+
+        /**
+         * Constructor with the parameters to create a change.
+         * @param operation change made to the record.
+         * @param sequence long with the number of the change.
+         */
+        private Change(Operation operation, long sequence) {
+            this.operation = operation;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * Path of the file where the changes are stored.
+     */
+    private final Path file;
+
+    /**
+     * Code that sends each change.
+     */
+    private final Sender sender;
+
+    /**
+     * Thread where the changes are sent.
+     */
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Changes waiting to be sent, by the name of the record, in the order they were made.
+     */
+    private final Map<String, Change> changes;
+
+    /**
+     * Number of the last change of each record changed, kept after it has been sent.
+     */
+    private final Map<String, Long> lastChanges;
+
+    /**
+     * Names of the records whose change is being sent.
+     */
+    private final Set<String> sending;
+
+    /**
+     * Number of the last change.
+     */
+    private long sequence;
+
+    /**
+     * Whether a send of the changes is already scheduled.
+     */
+    private boolean scheduled;
+
+    /**
+     * Time to wait before the next retry, in milliseconds.
+     */
+    private long retryDelay = FIRST_RETRY_DELAY;
+
+    /**
+     * Constructor to create a SyncQueue, loading the changes stored in its file. If there are any, they start being
+     * sent.
+     * @param file path of the file where the changes are stored.
+     * @param name string with the name of what is synchronised, to name its thread.
+     * @param sender code that sends each change.
+     */
+    SyncQueue(Path file, String name, Sender sender) {
+        this.file = file;
+        this.sender = sender;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sync-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.changes = new LinkedHashMap<>();
+        this.lastChanges = new HashMap<>();
+        this.sending = new HashSet<>();
+
+        for (Map.Entry<String, Operation> stored : load().entrySet()) {
+            changes.put(stored.getKey(), new Change(stored.getValue(), ++sequence));
+            lastChanges.put(stored.getKey(), sequence);
+        }
+        if (!changes.isEmpty()) {
+            schedule(0);
+        }
+    }
+
+    /**
+     * Method to record a change of a record and start sending it.
+     * @param name string with the name of the record changed.
+     * @param operation change made to the record.
+     */
+    synchronized void mark(String name, Operation operation) {
+        Change previous = changes.remove(name);
+        Operation merged = operation;
+        if (previous != null) {
+            merged = switch (previous.operation) {
+                case ADD -> operation != Operation.DELETE ? Operation.ADD
+                        : sending.contains(name) ? Operation.DELETE : null;
+                case UPDATE -> operation == Operation.DELETE ? Operation.DELETE : Operation.UPDATE;
+                case DELETE -> operation == Operation.DELETE ? Operation.DELETE : Operation.UPDATE;
+            };
+        }
+        sequence++;
+        if (merged != null) {
+            changes.put(name, new Change(merged, sequence));
+        }
+        lastChanges.put(name, sequence);
+        save();
+        schedule(0);
+    }
+
+    /**
+     * Method to get the number of the last change recorded, to know later which records have been changed since.
+     * @return long with the number of the last change.
+     */
+    synchronized long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Method to check if the local version of a record is newer than data read from the API at some point: it has
+     * changes waiting to be sent, or it was changed after that point, even if the change has already been sent.
+     * @param name string with the name of the record.
+     * @param since long with the number of the last change recorded when the data started being read.
+     * @return true if the local version must be kept, false if it can be replaced by the data read.
+     */
+    synchronized boolean isChangedSince(String name, long since) {
+        return changes.containsKey(name) || lastChanges.getOrDefault(name, 0L) > since;
+    }
+
+    /**
+     * Method to get the number of records with changes waiting to be sent.
+     * @return integer with the number of records.
+     */
+    synchronized int size() {
+        return changes.size();
+    }
+
+    /**
+     * Method to send now the changes waiting, waiting for them up to a time. The ones not sent in time stay stored
+     * and are sent the next time.
+     * @param timeout long with the maximum time to wait in milliseconds.
+     */
+    void flush(long timeout) {
+        try {
+            executor.submit(this::send).get(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ignored) {}
+    }
+
+    /**
+     * Method to schedule a send of the changes, if there is not one already scheduled.
+     * @param delay long with the time to wait before sending them in milliseconds.
+     */
+    private synchronized void schedule(long delay) {
+        if (!scheduled) {
+            scheduled = true;
+            executor.schedule(this::send, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Method to send the changes waiting, run in the thread of the queue. The changes sent are removed unless the
+     * record was changed again meanwhile, and if any of them fails another send is scheduled after a while.
+     */
+    private void send() {
+        List<Map.Entry<String, Change>> batch;
+        synchronized (this) {
+            scheduled = false;
+            batch = new ArrayList<>(changes.entrySet());
+            sending.addAll(changes.keySet());
+        }
+        if (batch.isEmpty()) return;
+
+        boolean failed = false;
+        try {
+            ApiHelper api = new ApiHelper();
+            for (int start = 0; start < batch.size(); start += MAX_PARALLEL_SENDS) {
+                List<Map.Entry<String, Change>> group = batch.subList(start, Math.min(start + MAX_PARALLEL_SENDS,
+                        batch.size()));
+                CompletableFuture<?>[] sends = new CompletableFuture<?>[group.size()];
+                boolean[] failures = new boolean[group.size()];
+                for (int i = 0; i < group.size(); i++) {
+                    int index = i;
+                    Map.Entry<String, Change> change = group.get(i);
+                    sends[i] = sender.send(api, change.getKey(), change.getValue().operation)
+                            .handle((result, e) -> failures[index] = e != null);
+                }
+                CompletableFuture.allOf(sends).join();
+
+                for (int i = 0; i < group.size(); i++) {
+                    failed |= failures[i];
+                    complete(group.get(i).getKey(), group.get(i).getValue(), !failures[i]);
+                }
+            }
+        } catch (IOException e) {
+            failed = true;
+        }
+
+        synchronized (this) {
+            sending.clear();
+            save();
+            if (failed) {
+                schedule(retryDelay);
+                retryDelay = Math.min(retryDelay * 2, MAX_RETRY_DELAY);
+            } else {
+                retryDelay = FIRST_RETRY_DELAY;
+                if (!changes.isEmpty()) {
+                    schedule(0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to finish the send of a change. If it was sent it is removed, unless the record was changed again while
+     * it was being sent: then the new change is adapted to what the API has now.
+     * @param name string with the name of the record.
+     * @param sent change sent.
+     * @param succeeded true if the change was sent, false if it failed.
+     */
+    private synchronized void complete(String name, Change sent, boolean succeeded) {
+        sending.remove(name);
+        Change current = changes.get(name);
+        if (!succeeded || current == null) return;
+
+        if (current.sequence == sent.sequence) {
+            changes.remove(name);
+        } else if (sent.operation == Operation.ADD && current.operation == Operation.ADD) {
+            changes.put(name, new Change(Operation.UPDATE, current.sequence));
+        } else if (sent.operation == Operation.DELETE && current.operation == Operation.UPDATE) {
+            changes.put(name, new Change(Operation.ADD, current.sequence));
+        }
+    }
+
+    /**
+     * Method to read the changes stored in the file.
+     * @return map with the operation of each record, empty if the file is not found or can not be read.
+     */
+    private Map<String, Operation> load() {
+        if (!Files.exists(file)) return new LinkedHashMap<>();
+
+        try (Reader reader = new FileReader(file.toFile())) {
+            Map<String, Operation> stored = new Gson().fromJson(reader,
+                    new TypeToken<LinkedHashMap<String, Operation>>() {}.getType());
+            return stored == null ? new LinkedHashMap<>() : stored;
+        } catch (IOException | JsonParseException e) {
+            return new LinkedHashMap<>();
+        }
+    }
+
+    /**
+     * Method to store the changes waiting in the file, removing it if there are none. Callers must hold the lock of
+     * the queue.
+     */
+    private void save() {
+        try {
+            if (changes.isEmpty()) {
+                Files.deleteIfExists(file);
+                return;
+            }
+
+            Map<String, Operation> stored = new LinkedHashMap<>();
+            for (Map.Entry<String, Change> change : changes.entrySet()) {
+                stored.put(change.getKey(), change.getValue().operation);
+            }
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (Writer writer = new FileWriter(temp.toFile())) {
+                new Gson().toJson(stored, writer);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ignored) {}
+    }
+}
@@ -0,0 +1,289 @@
+package persistence.API;
+
+import business.entities.Adventure;
+import business.entities.Encounter;
+import business.entities.Monsters.Monster;
+import persistence.AdventureDAO;
+import persistence.JSON.JSONAdventureDAO;
+import persistence.JSON.MappedMonsterCatalog;
+import persistence.MonsterDAO;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * This class is to store and read adventure instances {@link Adventure} of the API without waiting for it. The
+ * adventures are read from and written to a local copy of the ones of the API, and the new ones are sent to the API
+ * in the background through a sync queue {@link SyncQueue}, so it keeps working while the API can not be reached.
+ * When preloaded, the adventures of the API are downloaded in the background and merged into the local copy, keeping
+ * the local ones not sent yet.
+ * The local copy only keeps the monster types and amounts of each encounter, so the monsters of the adventures sent
+ * are created from the local copy of the monsters of the API.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+public class SyncedAdventureDAO implements AdventureDAO {
+    /**
+     * Maximum time to wait for the new adventures to be sent when flushing, in milliseconds.
+     */
+    private static final long FLUSH_TIMEOUT = 3000;
+
+    /**
+     * Path of the json file of the local copy.
+     */
+    private final Path file;
+
+    /**
+     * DAO of the local copy of the adventures.
+     */
+    private final JSONAdventureDAO local;
+
+    /**
+     * DAO of the adventures of the API.
+     */
+    private final APIAdventureDAO remote;
+
+    /**
+     * New adventures waiting to be sent to the API.
+     */
+    private final SyncQueue queue;
+
+    /**
+     * Catalog of the local copy of the monsters, to create the monsters of the adventures sent.
+     */
+    private final MonsterDAO monsters;
+
+    /**
+     * Download of the adventures of the API, null if it has not been started.
+     */
+    private CompletableFuture<Void> pulled;
+
+    /**
+     * Constructor to create a SyncedAdventureDAO with its local copy in the "data/cloud" folder.
+     */
+    public SyncedAdventureDAO() {
+        this(Path.of("data/cloud"));
+    }
+
+    /**
+     * Constructor to create a SyncedAdventureDAO with its local copy in the given folder.
+     * @param directory path of the folder of the local copy.
+     */
+    public SyncedAdventureDAO(Path directory) {
+        this.file = directory.resolve("adventures.json");
+        this.local = new JSONAdventureDAO(file);
+        this.remote = new APIAdventureDAO();
+        this.monsters = new MappedMonsterCatalog(directory.resolve("monsters.json"));
+        this.queue = new SyncQueue(directory.resolve("adventures.pending"), "adventures", this::send);
+    }
+
+    /**
+     * Method to get the adventures of the local copy.
+     * @return List of adventures instances, null if there is no local copy and the API can not be reached.
+     */
+    @Override
+    public List<Adventure> read() {
+        awaitCopy();
+        synchronized (this) {
+            return local.read();
+        }
+    }
+
+    /**
+     * Method to get the names of the adventures of the local copy.
+     * @return List of adventure names, null if there is no local copy and the API can not be reached.
+     */
+    @Override
+    public List<String> readNames() {
+        awaitCopy();
+        synchronized (this) {
+            return local.readNames();
+        }
+    }
+
+    /**
+     * Method to get an adventure of the local copy by its name.
+     * @param name name of the adventure.
+     * @return the adventure, null if there is no adventure with that name.
+     */
+    @Override
+    public Adventure read(String name) {
+        awaitCopy();
+        synchronized (this) {
+            return local.read(name);
+        }
+    }
+
+    /**
+     * Method to replace the adventures of the local copy, sending the new ones to the API in the background.
+     * @param adventures List of adventures instances.
+     */
+    @Override
+    public void write(List<Adventure> adventures) {
+        awaitCopy();
+        synchronized (this) {
+            List<String> names = local.readNames();
+            Set<String> previous = names == null ? new HashSet<>() : new HashSet<>(names);
+
+            local.write(adventures);
+            for (Adventure adventure : adventures) {
+                if (!previous.contains(adventure.getName())) {
+                    queue.mark(adventure.getName(), SyncQueue.Operation.ADD);
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to start downloading the adventures of the API in the background, to merge them into the local copy.
+     */
+    @Override
+    public synchronized void preload() {
+        pulled = pull();
+    }
+
+    /**
+     * Method to write the local copy and send the new adventures to the API, waiting for them for a while. The ones
+     * not sent are sent the next time the program is run.
+     */
+    @Override
+    public void flush() {
+        local.flush();
+        queue.flush(FLUSH_TIMEOUT);
+    }
+
+    /**
+     * Method to wait for the adventures of the API to be downloaded if there is no local copy yet, as there is
+     * nothing to read until then. If the download fails or the API can not be reached, it is forgotten so the next
+     * call tries again, and meanwhile the local copy is read as it is: missing, like an unavailable source.
+     */
+    private void awaitCopy() {
+        CompletableFuture<Void> download;
+        synchronized (this) {
+            if (Files.exists(file)) return;
+            if (pulled == null) {
+                pulled = pull();
+            }
+            download = pulled;
+        }
+        try {
+            download.join();
+        } catch (CancellationException | CompletionException ignored) {}
+
+        synchronized (this) {
+            if (pulled == download && !Files.exists(file)) {
+                pulled = null;
+            }
+        }
+    }
+
+    /**
+     * Method to start downloading the adventures of the API, to merge them into the local copy once downloaded. Callers
+     * must hold the lock of the DAO.
+     * @return Future completed when the adventures have been merged.
+     */
+    private CompletableFuture<Void> pull() {
+        long since = queue.getSequence();
+        return remote.readAsync().thenAccept(adventures -> merge(adventures, since));
+    }
+
+    /**
+     * Method to merge the adventures downloaded from the API into the local copy. The adventures waiting to be sent,
+     * or added since the download started, are kept, as the API may have answered before receiving them. The rest
+     * are replaced by the ones of the API. As adventures are never modified, the local copy is only written if the
+     * names of the adventures change.
+     * @param adventures List of adventures instances of the API, null if it could not be reached.
+     * @param since long with the number of the last change of the sync queue when the download started.
+     */
+    private synchronized void merge(List<Adventure> adventures, long since) {
+        if (adventures == null) return;
+
+        List<Adventure> stored = local.read();
+        Map<String, Adventure> merged = new LinkedHashMap<>();
+        for (Adventure adventure : adventures) {
+            if (!queue.isChangedSince(adventure.getName(), since)) {
+                merged.put(adventure.getName(), adventure);
+            }
+        }
+        if (stored != null) {
+            List<String> storedNames = new ArrayList<>();
+            for (Adventure adventure : stored) {
+                storedNames.add(adventure.getName());
+                if (queue.isChangedSince(adventure.getName(), since)) {
+                    merged.put(adventure.getName(), adventure);
+                }
+            }
+            if (storedNames.equals(new ArrayList<>(merged.keySet()))) return;
+        }
+
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        } catch (IOException e) {
+            return;
+        }
+        local.write(new ArrayList<>(merged.values()));
+        local.flush();
+    }
+
+    /**
+     * Method to send a new adventure to the API, run by the sync queue {@link SyncQueue}, with the monsters of its
+     * encounters.
+     * @param api helper used to send the requests.
+     * @param name name of the adventure.
+     * @param operation change made to the adventure, always an addition.
+     * @return Future completed when the adventure has been sent, exceptionally if it could not be sent or some of its
+     * monsters are not in the local copy yet, so it is sent later.
+     */
+    private CompletableFuture<?> send(ApiHelper api, String name, SyncQueue.Operation operation) {
+        Adventure adventure;
+        synchronized (this) {
+            adventure = local.read(name);
+        }
+        if (adventure == null || operation == SyncQueue.Operation.DELETE) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Adventure complete = withMonsters(adventure);
+        if (complete == null) {
+            return CompletableFuture.failedFuture(new IOException("The monsters of " + name + " are not available"));
+        }
+        return remote.addAsync(api, complete);
+    }
+
+    /**
+     * Method to create an adventure with the monsters of its encounters, from their types and amounts.
+     * @param adventure adventure {@link Adventure} as stored in the local copy.
+     * @return a new adventure with the monsters of each encounter, null if any of the monster types is not found.
+     */
+    private Adventure withMonsters(Adventure adventure) {
+        Set<String> types = new HashSet<>();
+        for (Encounter encounter : adventure.getEncounters()) {
+            types.addAll(encounter.getMonsterTypes());
+        }
+        Map<String, Monster> found = monsters.findAll(types);
+        if (!found.keySet().containsAll(types)) return null;
+
+        List<Encounter> encounters = new ArrayList<>();
+        for (Encounter encounter : adventure.getEncounters()) {
+            List<Monster> created = new ArrayList<>();
+            for (int i = 0; i < encounter.getMonsterTypes().size(); i++) {
+                for (int j = 0; j < encounter.getAmount().get(i); j++) {
+                    created.add(found.get(encounter.getMonsterTypes().get(i)).copy());
+                }
+            }
+            encounters.add(new Encounter(encounter.getMonsterTypes(), encounter.getAmount(), created));
+        }
+        return new Adventure(adventure.getName(), adventure.getNumEncounters(), encounters);
+    }
+}
@@ -0,0 +1,352 @@
+package persistence.API;
+
+import business.entities.Characters.CharacterGame;
+import persistence.CharacterDAO;
+import persistence.JSON.CachedCharacterDAO;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * This class is to store and read character instances {@link CharacterGame} of the API without waiting for it. The
+ * characters are read from and written to a local copy of the ones of the API, and every change made is sent to the
+ * API in the background through a sync queue {@link SyncQueue}, so it keeps working while the API can not be reached.
+ * When preloaded, the characters of the API are downloaded in the background and merged into the local copy, keeping
+ * the local changes not sent yet.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+public class SyncedCharacterDAO implements CharacterDAO {
+    /**
+     * Maximum time to wait for the changes to be sent when flushing, in milliseconds.
+     */
+    private static final long FLUSH_TIMEOUT = 3000;
+
+    /**
+     * Path of the json file of the local copy.
+     */
+    private final Path file;
+
+    /**
+     * DAO of the local copy of the characters.
+     */
+    private final CachedCharacterDAO local;
+
+    /**
+     * DAO of the characters of the API.
+     */
+    private final APICharacterDAO remote;
+
+    /**
+     * Changes waiting to be sent to the API.
+     */
+    private final SyncQueue queue;
+
+    /**
+     * Download of the characters of the API, null if it has not been started.
+     */
+    private CompletableFuture<Void> pulled;
+
+    /**
+     * Constructor to create a SyncedCharacterDAO with its local copy in the "data/cloud" folder.
+     */
+    public SyncedCharacterDAO() {
+        this(Path.of("data/cloud"));
+    }
+
+    /**
+     * Constructor to create a SyncedCharacterDAO with its local copy in the given folder.
+     * @param directory path of the folder of the local copy.
+     */
+    public SyncedCharacterDAO(Path directory) {
+        this.file = directory.resolve("characters.json");
+        this.local = new CachedCharacterDAO(file);
+        this.remote = new APICharacterDAO();
+        this.queue = new SyncQueue(directory.resolve("characters.pending"), "characters", this::send);
+    }
+
+    /**
+     * Method to get the characters of the local copy.
+     * @return List of characters instances, null if there is no local copy and the API can not be reached.
+     */
+    @Override
+    public List<CharacterGame> read() {
+        awaitCopy();
+        synchronized (this) {
+            return local.read();
+        }
+    }
+
+    /**
+     * Method to find a character of the local copy by its name.
+     * @param name name of the character.
+     * @return the character, null if there is no character with that name.
+     */
+    @Override
+    public CharacterGame find(String name) {
+        awaitCopy();
+        synchronized (this) {
+            return local.find(name);
+        }
+    }
+
+    /**
+     * Method to get the number of characters of the local copy.
+     * @return an integer with the number of characters.
+     */
+    @Override
+    public int count() {
+        awaitCopy();
+        synchronized (this) {
+            return local.count();
+        }
+    }
+
+    /**
+     * Method to find the characters of the local copy of the players whose name contains the given text.
+     * @param player string containing the name of the player or part of it.
+     * @return List of the characters found, sorted by player and then by name.
+     */
+    @Override
+    public List<CharacterGame> findByPlayer(String player) {
+        awaitCopy();
+        synchronized (this) {
+            return local.findByPlayer(player);
+        }
+    }
+
+    /**
+     * Method to replace the characters of the local copy, sending to the API the ones added, changed and removed.
+     * @param characters List of characters instances.
+     */
+    @Override
+    public void write(List<CharacterGame> characters) {
+        awaitCopy();
+        synchronized (this) {
+            Map<String, CharacterGame> previous = new HashMap<>();
+            List<CharacterGame> stored = local.read();
+            if (stored != null) {
+                for (CharacterGame character : stored) {
+                    previous.put(character.getName(), character);
+                }
+            }
+
+            local.write(characters);
+            for (CharacterGame character : characters) {
+                CharacterGame old = previous.remove(character.getName());
+                if (old == null) {
+                    queue.mark(character.getName(), SyncQueue.Operation.ADD);
+                } else if (!sameTraits(old, character)) {
+                    queue.mark(character.getName(), SyncQueue.Operation.UPDATE);
+                }
+            }
+            for (String name : previous.keySet()) {
+                queue.mark(name, SyncQueue.Operation.DELETE);
+            }
+        }
+    }
+
+    /**
+     * Method to add a character to the local copy, sending it to the API in the background.
+     * @param character Character instance to be added.
+     */
+    @Override
+    public void addCharacter(CharacterGame character) {
+        awaitCopy();
+        synchronized (this) {
+            local.addCharacter(character);
+            queue.mark(character.getName(), SyncQueue.Operation.ADD);
+        }
+    }
+
+    /**
+     * Method to delete a character from the local copy, deleting it from the API in the background.
+     * @param character Character instance to be deleted.
+     */
+    @Override
+    public void deleteCharacter(CharacterGame character) {
+        awaitCopy();
+        synchronized (this) {
+            local.deleteCharacter(character);
+            queue.mark(character.getName(), SyncQueue.Operation.DELETE);
+        }
+    }
+
+    /**
+     * Method to update a character of the local copy, updating it in the API in the background.
+     * @param character Character instance to be updated.
+     */
+    @Override
+    public void updateCharacter(CharacterGame character) {
+        awaitCopy();
+        synchronized (this) {
+            local.updateCharacter(character);
+            queue.mark(character.getName(), SyncQueue.Operation.UPDATE);
+        }
+    }
+
+    /**
+     * Method to update several characters of the local copy at once, updating them in the API in the background.
+     * @param characters List of characters instances to be updated.
+     */
+    @Override
+    public void updateCharacters(List<CharacterGame> characters) {
+        awaitCopy();
+        synchronized (this) {
+            for (CharacterGame character : characters) {
+                local.updateCharacter(character);
+                queue.mark(character.getName(), SyncQueue.Operation.UPDATE);
+            }
+        }
+    }
+
+    /**
+     * Method to start downloading the characters of the API in the background, to merge them into the local copy.
+     */
+    @Override
+    public synchronized void preload() {
+        pulled = pull();
+    }
+
+    /**
+     * Method to write the local copy and send the changes waiting to the API, waiting for them for a while. The ones
+     * not sent are sent the next time the program is run.
+     */
+    @Override
+    public void flush() {
+        local.flush();
+        queue.flush(FLUSH_TIMEOUT);
+    }
+
+    /**
+     * Method to wait for the characters of the API to be downloaded if there is no local copy yet, as there is
+     * nothing to read until then. If the download fails or the API can not be reached, it is forgotten so the next
+     * call tries again, and meanwhile the local copy is read as it is: missing, like an unavailable source.
+     */
+    private void awaitCopy() {
+        CompletableFuture<Void> download;
+        synchronized (this) {
+            if (Files.exists(file)) return;
+            if (pulled == null) {
+                pulled = pull();
+            }
+            download = pulled;
+        }
+        try {
+            download.join();
+        } catch (CancellationException | CompletionException ignored) {}
+
+        synchronized (this) {
+            if (pulled == download && !Files.exists(file)) {
+                pulled = null;
+            }
+        }
+    }
+
+    /**
+     * Method to start downloading the characters of the API, to merge them into the local copy once downloaded. Callers
+     * must hold the lock of the DAO.
+     * @return Future completed when the characters have been merged.
+     */
+    private CompletableFuture<Void> pull() {
+        long since = queue.getSequence();
+        return remote.readAsync().thenAccept(characters -> merge(characters, since));
+    }
+
+    /**
+     * Method to merge the characters downloaded from the API into the local copy. The characters with changes
+     * waiting to be sent, or changed since the download started, keep their local version (or stay deleted), as the
+     * API may have answered before receiving the change. The rest are replaced by the ones of the API.
+     * @param characters List of characters instances of the API, null if it could not be reached.
+     * @param since long with the number of the last change of the sync queue when the download started.
+     */
+    private synchronized void merge(List<CharacterGame> characters, long since) {
+        if (characters == null) return;
+
+        List<CharacterGame> stored = local.read();
+        Map<String, CharacterGame> merged = new LinkedHashMap<>();
+        for (CharacterGame character : characters) {
+            if (!queue.isChangedSince(character.getName(), since)) {
+                merged.put(character.getName(), character);
+            }
+        }
+        if (stored != null) {
+            for (CharacterGame character : stored) {
+                if (queue.isChangedSince(character.getName(), since)) {
+                    merged.put(character.getName(), character);
+                }
+            }
+            if (sameCharacters(stored, merged)) return;
+        }
+
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        } catch (IOException e) {
+            return;
+        }
+        local.write(new ArrayList<>(merged.values()));
+        local.flush();
+    }
+
+    /**
+     * Method to send a change of a character to the API, run by the sync queue {@link SyncQueue}.
+     * @param api helper used to send the requests.
+     * @param name name of the character changed.
+     * @param operation change made to the character.
+     * @return Future completed when the change has been sent, exceptionally if it could not be sent.
+     */
+    private CompletableFuture<?> send(ApiHelper api, String name, SyncQueue.Operation operation) {
+        if (operation == SyncQueue.Operation.DELETE) {
+            return remote.deleteAsync(api, name);
+        }
+
+        CharacterGame character;
+        synchronized (this) {
+            character = local.find(name);
+        }
+        if (character == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return operation == SyncQueue.Operation.ADD ? remote.addAsync(api, character)
+                : remote.replaceAsync(api, character);
+    }
+
+    /**
+     * Method to check if the local characters are the same as the merged ones.
+     * @param stored List of characters instances of the local copy.
+     * @param merged map with the merged characters by name.
+     * @return true if they have the same characters with the same traits, false otherwise.
+     */
+    private static boolean sameCharacters(List<CharacterGame> stored, Map<String, CharacterGame> merged) {
+        if (stored.size() != merged.size()) return false;
+
+        for (CharacterGame character : stored) {
+            CharacterGame other = merged.get(character.getName());
+            if (other == null || !sameTraits(character, other)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Method to check if two characters have the same persisted traits.
+     * @param a a character instance.
+     * @param b another character instance.
+     * @return true if they have the same name, player, experience, stats and class, false otherwise.
+     */
+    private static boolean sameTraits(CharacterGame a, CharacterGame b) {
+        return a.getName().equals(b.getName()) && Objects.equals(a.getPlayer(), b.getPlayer())
+                && a.getXp() == b.getXp() && a.getBody() == b.getBody() && a.getMind() == b.getMind()
+                && a.getSpirit() == b.getSpirit() && Objects.equals(a.getClassType(), b.getClassType());
+    }
+}
@@ -0,0 +1,173 @@
+package persistence.API;
+
+import business.entities.Monsters.Monster;
+import persistence.JSON.JSONMonsterDAO;
+import persistence.JSON.MappedMonsterCatalog;
+import persistence.MonsterDAO;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * This class is to read monster instances {@link Monster} of the API without waiting for it. The monsters are read
+ * from a local copy of the ones of the API, through a mapped catalog {@link MappedMonsterCatalog}. When preloaded, the
+ * monsters of the API are downloaded in the background and the local copy is replaced if they have changed.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+public class SyncedMonsterDAO implements MonsterDAO {
+    /**
+     * Path of the json file of the local copy.
+     */
+    private final Path file;
+
+    /**
+     * Catalog of the local copy of the monsters.
+     */
+    private final MappedMonsterCatalog local;
+
+    /**
+     * DAO used to write the local copy.
+     */
+    private final JSONMonsterDAO writer;
+
+    /**
+     * DAO of the monsters of the API.
+     */
+    private final APIMonsterDAO remote;
+
+    /**
+     * Download of the monsters of the API, null if it has not been started.
+     */
+    private CompletableFuture<Void> pulled;
+
+    /**
+     * Constructor to create a SyncedMonsterDAO with its local copy in the "data/cloud" folder.
+     */
+    public SyncedMonsterDAO() {
+        this(Path.of("data/cloud"));
+    }
+
+    /**
+     * Constructor to create a SyncedMonsterDAO with its local copy in the given folder.
+     * @param directory path of the folder of the local copy.
+     */
+    public SyncedMonsterDAO(Path directory) {
+        this.file = directory.resolve("monsters.json");
+        this.local = new MappedMonsterCatalog(file);
+        this.writer = new JSONMonsterDAO(file);
+        this.remote = new APIMonsterDAO();
+    }
+
+    /**
+     * Method to get the monsters of the local copy.
+     * @return List of monsters, null if there is no local copy and the API can not be reached.
+     */
+    @Override
+    public List<Monster> read() {
+        awaitCopy();
+        return local.read();
+    }
+
+    /**
+     * Method to find a monster of the local copy by its name.
+     * @param name name of the monster.
+     * @return the monster, null if there is no monster with that name.
+     */
+    @Override
+    public Monster find(String name) {
+        awaitCopy();
+        return local.find(name);
+    }
+
+    /**
+     * Method to find several monsters of the local copy by their names.
+     * @param names names of the monsters.
+     * @return map with the monsters found by their name, without the names that have no monster.
+     */
+    @Override
+    public Map<String, Monster> findAll(Collection<String> names) {
+        awaitCopy();
+        return local.findAll(names);
+    }
+
+    /**
+     * Method to start downloading the monsters of the API in the background, to update the local copy.
+     */
+    @Override
+    public synchronized void preload() {
+        pulled = remote.readAsync().thenAccept(this::merge);
+    }
+
+    /**
+     * Method to wait for the monsters of the API to be downloaded if there is no local copy yet, as there is
+     * nothing to read until then. If the download fails or the API can not be reached, it is forgotten so the next
+     * call tries again, and meanwhile the local copy is read as it is: missing, like an unavailable source.
+     */
+    private void awaitCopy() {
+        CompletableFuture<Void> download;
+        synchronized (this) {
+            if (Files.exists(file)) return;
+            if (pulled == null) {
+                pulled = remote.readAsync().thenAccept(this::merge);
+            }
+            download = pulled;
+        }
+        try {
+            download.join();
+        } catch (CancellationException | CompletionException ignored) {}
+
+        synchronized (this) {
+            if (pulled == download && !Files.exists(file)) {
+                pulled = null;
+            }
+        }
+    }
+
+    /**
+     * Method to replace the local copy with the monsters downloaded from the API, if they are not the same.
+     * @param monsters List of monsters of the API, null if it could not be reached.
+     */
+    private synchronized void merge(List<Monster> monsters) {
+        if (monsters == null) return;
+
+        List<Monster> stored = Files.exists(file) ? local.read() : null;
+        if (stored != null && sameMonsters(stored, monsters)) return;
+
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            writer.write(monsters);
+        } catch (IOException ignored) {}
+    }
+
+    /**
+     * Method to check if two lists have the same monsters, in the same order.
+     * @param a a list of monsters.
+     * @param b another list of monsters.
+     * @return true if they have the same monsters with the same traits, false otherwise.
+     */
+    private static boolean sameMonsters(List<Monster> a, List<Monster> b) {
+        if (a.size() != b.size()) return false;
+
+        for (int i = 0; i < a.size(); i++) {
+            Monster x = a.get(i);
+            Monster y = b.get(i);
+            if (!Objects.equals(x.getName(), y.getName()) || !Objects.equals(x.getChallenge(), y.getChallenge())
+                    || x.getExperience() != y.getExperience() || x.getHitPoints() != y.getHitPoints()
+                    || x.getInitiative() != y.getInitiative() || !Objects.equals(x.getDamageDice(), y.getDamageDice())
+                    || !Objects.equals(x.getDamageType(), y.getDamageType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
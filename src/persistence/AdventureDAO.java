@@ -2,7 +2,9 @@ package persistence;
 
 import business.entities.Adventure;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface to manage the data of the adventures.
@@ -23,4 +25,55 @@ public interface AdventureDAO {
      * @param adventures List of adventures instances.
      */
     void write(List<Adventure> adventures);
+
+    /**
+     * Method to get only the names of the adventures stored in the persistence source.
+     * @return List of adventure names, null if the persistence source can not be accessed.
+     */
+    default List<String> readNames() {
+        List<Adventure> adventures = read();
+        if (adventures == null) return null;
+
+        List<String> names = new ArrayList<>(adventures.size());
+        for (Adventure adventure : adventures) {
+            names.add(adventure.getName());
+        }
+        return names;
+    }
+
+    /**
+     * Method to get a single adventure stored in the persistence source.
+     * @param name Name of the adventure.
+     * @return Adventure instance with that name, null if it is not found.
+     */
+    default Adventure read(String name) {
+        List<Adventure> adventures = read();
+        if (adventures == null) return null;
+
+        for (Adventure adventure : adventures) {
+            if (adventure.getName().equals(name)) {
+                return adventure;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Method to get the adventures without blocking. By default, they are read in another thread.
+     * @return Future with the list of adventures, completed with null if the persistence source can not be accessed.
+     */
+    default CompletableFuture<List<Adventure>> readAsync() {
+        return CompletableFuture.supplyAsync(this::read);
+    }
+
+    /**
+     * Method to start reading the adventures in the background, so the next read does not wait for the whole request.
+     * By default, nothing is done.
+     */
+    default void preload() {}
+
+    /**
+     * Method to make sure all the adventures saved have been written in the persistence source.
+     */
+    default void flush() {}
 }
@@ -2,7 +2,10 @@ package persistence;
 
 import business.entities.Characters.CharacterGame;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface to manage the data of the characters.
@@ -24,6 +27,58 @@ public interface CharacterDAO {
      */
     void write(List<CharacterGame> characters);
 
+    /**
+     * Method to get the number of characters.
+     * @return number of characters stored in the persistence source.
+     */
+    default int count() {
+        return read().size();
+    }
+
+    /**
+     * Method to find a character by its name. By default, all the characters are read and the first one with the
+     * name is returned.
+     * @param name name of the character.
+     * @return the character, null if there is no character with that name or the characters can not be read.
+     */
+    default CharacterGame find(String name) {
+        List<CharacterGame> characters = read();
+        if (characters == null) return null;
+        for (CharacterGame character : characters) {
+            if (character.getName().equals(name)) {
+                return character;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Method to find the characters of the players whose name contains the given text, ignoring case. They are
+     * sorted by player and then by name. By default, all the characters are read and checked.
+     * @param player string containing the name of the player or part of it.
+     * @return List of characters instances found, null if the characters can not be read.
+     */
+    default List<CharacterGame> findByPlayer(String player) {
+        List<CharacterGame> characters = read();
+        if (characters == null) return null;
+
+        List<CharacterGame> found = new ArrayList<>();
+        for (CharacterGame character : characters) {
+            if (character.getPlayer().toLowerCase().contains(player.toLowerCase())) {
+                found.add(character);
+            }
+        }
+        found.sort(Comparator.comparing((CharacterGame character) -> character.getPlayer().toLowerCase())
+                .thenComparing(CharacterGame::getName));
+        return found;
+    }
+
+    /**
+     * Method to add a new character to the persistence source.
+     * @param character Character instance to be added.
+     */
+    void addCharacter(CharacterGame character);
+
     /**
      * Method to delete a character.
      * @param character Character instance to be deleted.
@@ -35,4 +90,33 @@ public interface CharacterDAO {
      * @param character Character instance to be updated.
      */
     void updateCharacter(CharacterGame character);
+
+    /**
+     * Method to update several characters. By default, they are updated one by one.
+     * @param characters List of characters instances to be updated.
+     */
+    default void updateCharacters(List<CharacterGame> characters) {
+        for (CharacterGame character : characters) {
+            updateCharacter(character);
+        }
+    }
+
+    /**
+     * Method to get the characters without blocking. By default, they are read in another thread.
+     * @return Future with the list of characters, completed with null if the persistence source can not be accessed.
+     */
+    default CompletableFuture<List<CharacterGame>> readAsync() {
+        return CompletableFuture.supplyAsync(this::read);
+    }
+
+    /**
+     * Method to start reading the characters in the background, so the next read does not wait for the whole request.
+     * By default, nothing is done.
+     */
+    default void preload() {}
+
+    /**
+     * Method to make sure all the characters saved have been written in the persistence source.
+     */
+    default void flush() {}
 }
@@ -0,0 +1,394 @@
+package persistence.JSON;
+
+import business.entities.Adventure;
+import business.entities.Characters.CharacterGame;
+import business.entities.Encounter;
+import business.entities.Monsters.Boss;
+import business.entities.Monsters.Monster;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is to store monsters {@link Monster}, characters {@link CharacterGame} and adventures {@link Adventure}
+ * in a compact binary file next to their json file, which is faster to load than the json one.
+ * The file starts with a header (magic number, version and kind of content), followed by a table with all the
+ * different strings used (names, classes, damage types...) and the records. Each record is prefixed by its length in
+ * bytes and refers to the strings by their position in the table.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+final class BinarySnapshot {
+    /**
+     * Number at the start of every snapshot ("SRPG").
+     */
+    private static final int MAGIC = 0x53525047;
+
+    /**
+     * Version of the format.
+     */
+    private static final byte VERSION = 1;
+
+    /**
+     * Kind of a snapshot of monsters.
+     */
+    static final byte MONSTERS = 1;
+
+    /**
+     * Kind of a snapshot of characters.
+     */
+    static final byte CHARACTERS = 2;
+
+    /**
+     * Kind of a snapshot of adventures.
+     */
+    static final byte ADVENTURES = 3;
+
+    /**
+     * Constructor, not used as all the methods are static.
+     */
+    private BinarySnapshot() {}
+
+    /**
+     * Method to get the path of the snapshot of a json file.
+     * @param json path of the json file.
+     * @return the path of the snapshot, with the same name and the extension ".bin".
+     */
+    static Path pathOf(Path json) {
+        String name = json.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return json.resolveSibling((dot == -1 ? name : name.substring(0, dot)) + ".bin");
+    }
+
+    /**
+     * Method to check if the snapshot of a json file can be loaded instead of it.
+     * @param json path of the json file.
+     * @return true if the snapshot exists and is not older than the json file, false if not.
+     */
+    static boolean isUpToDate(Path json) {
+        try {
+            Path snapshot = pathOf(json);
+            return Files.exists(snapshot)
+                    && Files.getLastModifiedTime(snapshot).compareTo(Files.getLastModifiedTime(json)) >= 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // Writing
+
+    /**
+     * Class to collect the strings of the snapshot and give each one its position in the table.
+     */
+    private static final class StringTable {
+        // position of each string.
+        private final Map<String, Integer> positions = new HashMap<>();
+        // strings in the order they were added.
+        private final List<String> strings = new ArrayList<>();
+
+        /**
+         * Method to get the position of a string, adding it if it is not in the table yet.
+         * @param string string to be looked up, can be null.
+         * @return the position of the string, -1 for null.
+         */
+        private int indexOf(String string) {
+            if (string == null) return -1;
+            Integer position = positions.get(string);
+            if (position == null) {
+                position = strings.size();
+                positions.put(string, position);
+                strings.add(string);
+            }
+            return position;
+        }
+    }
+
+    /**
+     * Interface for the code that writes a record.
+     * @param <T> type of the record.
+     */
+    @FunctionalInterface
+    private interface RecordWriter<T> {
+        void write(DataOutputStream out, T record, StringTable table) throws IOException;
+    }
+
+    /**
+     * Method to write a snapshot of monsters {@link Monster}.
+     * @param json path of the json file the monsters are stored in.
+     * @param monsters list of monster {@link Monster} instances.
+     * @throws IOException if the snapshot can not be written.
+     */
+    static void writeMonsters(Path json, List<Monster> monsters) throws IOException {
+        write(json, MONSTERS, monsters, (out, monster, table) -> {
+            out.writeInt(table.indexOf(monster.getName()));
+            out.writeInt(table.indexOf(monster.getChallenge()));
+            out.writeInt(monster.getExperience());
+            out.writeInt(monster.getHitPoints());
+            out.writeInt(monster.getInitiative());
+            out.writeInt(table.indexOf(monster.getDamageDice()));
+            out.writeInt(table.indexOf(monster.getDamageType()));
+        });
+    }
+
+    /**
+     * Method to write a snapshot of characters {@link CharacterGame}.
+     * @param json path of the json file the characters are stored in.
+     * @param characters list of character {@link CharacterGame} instances.
+     * @throws IOException if the snapshot can not be written.
+     */
+    static void writeCharacters(Path json, List<CharacterGame> characters) throws IOException {
+        write(json, CHARACTERS, characters, (out, character, table) -> {
+            out.writeInt(table.indexOf(character.getName()));
+            out.writeInt(table.indexOf(character.getPlayer()));
+            out.writeInt(character.getXp());
+            out.writeInt(character.getBody());
+            out.writeInt(character.getMind());
+            out.writeInt(character.getSpirit());
+            out.writeInt(table.indexOf(character.getClassType()));
+        });
+    }
+
+    /**
+     * Method to write a snapshot of adventures {@link Adventure}. Encounters are stored by their monster types and
+     * amounts only.
+     * @param json path of the json file the adventures are stored in.
+     * @param adventures list of adventure {@link Adventure} instances.
+     * @throws IOException if the snapshot can not be written.
+     */
+    static void writeAdventures(Path json, List<Adventure> adventures) throws IOException {
+        write(json, ADVENTURES, adventures, (out, adventure, table) -> {
+            out.writeInt(table.indexOf(adventure.getName()));
+            out.writeInt(adventure.getNumEncounters());
+            out.writeInt(adventure.getEncounters().size());
+            for (Encounter encounter : adventure.getEncounters()) {
+                out.writeInt(encounter.getMonsterTypes().size());
+                for (int i = 0; i < encounter.getMonsterTypes().size(); i++) {
+                    out.writeInt(table.indexOf(encounter.getMonsterTypes().get(i)));
+                    out.writeInt(encounter.getAmount().get(i));
+                }
+            }
+        });
+    }
+
+    /**
+     * Method to write a snapshot. The records are encoded first, as the table has to be written before them. The
+     * snapshot is written in a temporary file that is then moved over the previous one.
+     * @param json path of the json file the records are stored in.
+     * @param kind byte with the kind of the records.
+     * @param records list of records.
+     * @param recordWriter code that writes each record.
+     * @param <T> type of the records.
+     * @throws IOException if the snapshot can not be written.
+     */
+    private static <T> void write(Path json, byte kind, List<T> records, RecordWriter<T> recordWriter)
+            throws IOException {
+        StringTable table = new StringTable();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        DataOutputStream bodyOut = new DataOutputStream(body);
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        DataOutputStream recordOut = new DataOutputStream(record);
+
+        for (T value : records) {
+            record.reset();
+            recordWriter.write(recordOut, value, table);
+            bodyOut.writeInt(record.size());
+            record.writeTo(bodyOut);
+        }
+
+        Path snapshot = pathOf(json);
+        Path temp = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try (OutputStream file = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(kind);
+            out.writeInt(table.strings.size());
+            for (String string : table.strings) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.writeInt(records.size());
+            body.writeTo(out);
+        }
+        Files.move(temp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Reading
+
+    /**
+     * Method to check the header of a snapshot and read its table of strings. The buffer is left positioned at the
+     * number of records.
+     * @param buffer buffer with the content of the snapshot.
+     * @param kind byte with the kind of records expected.
+     * @return an array with the strings of the table.
+     * @throws IOException if the snapshot is not of the expected kind or version.
+     */
+    static String[] readHeader(ByteBuffer buffer, byte kind) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC || buffer.get() != VERSION || buffer.get() != kind) {
+                throw new IOException("Not a snapshot of the expected kind");
+            }
+            String[] table = new String[buffer.getInt()];
+            for (int i = 0; i < table.length; i++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                table[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            return table;
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Method to get a string of the table.
+     * @param table array with the strings of the table.
+     * @param index integer with the position of the string, -1 for null.
+     * @return the string.
+     */
+    private static String string(String[] table, int index) {
+        return index == -1 ? null : table[index];
+    }
+
+    /**
+     * Method to read the name of the monster {@link Monster} of the record the buffer is positioned at, without
+     * moving the buffer.
+     * @param buffer buffer positioned at the start of the record, after its length.
+     * @param table array with the strings of the table.
+     * @return the name of the monster.
+     */
+    static String peekMonsterName(ByteBuffer buffer, String[] table) {
+        return string(table, buffer.getInt(buffer.position()));
+    }
+
+    /**
+     * Method to decode a monster {@link Monster} record.
+     * @param buffer buffer positioned at the start of the record, after its length.
+     * @param table array with the strings of the table.
+     * @return a boss {@link Boss} instance if its challenge is "Boss", a monster {@link Monster} instance if not.
+     */
+    static Monster decodeMonster(ByteBuffer buffer, String[] table) {
+        String name = string(table, buffer.getInt());
+        String challenge = string(table, buffer.getInt());
+        int experience = buffer.getInt();
+        int hitPoints = buffer.getInt();
+        int initiative = buffer.getInt();
+        String damageDice = string(table, buffer.getInt());
+        String damageType = string(table, buffer.getInt());
+
+        if ("Boss".equals(challenge)) {
+            return new Boss(name, challenge, experience, hitPoints, initiative, damageDice, damageType);
+        }
+        return new Monster(name, challenge, experience, hitPoints, initiative, damageDice, damageType);
+    }
+
+    /**
+     * Method to read a snapshot of monsters {@link Monster}.
+     * @param json path of the json file the monsters are stored in.
+     * @return a list of monster {@link Monster} instances.
+     * @throws IOException if the snapshot can not be read.
+     */
+    static List<Monster> readMonsters(Path json) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(pathOf(json)));
+        String[] table = readHeader(buffer, MONSTERS);
+        try {
+            int count = buffer.getInt();
+            List<Monster> monsters = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int length = buffer.getInt();
+                int next = buffer.position() + length;
+                monsters.add(decodeMonster(buffer, table));
+                buffer.position(next);
+            }
+            return monsters;
+        } catch (RuntimeException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Method to read a snapshot of characters {@link CharacterGame}.
+     * @param json path of the json file the characters are stored in.
+     * @return a list of character {@link CharacterGame} instances.
+     * @throws IOException if the snapshot can not be read.
+     */
+    static List<CharacterGame> readCharacters(Path json) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(pathOf(json)));
+        String[] table = readHeader(buffer, CHARACTERS);
+        try {
+            int count = buffer.getInt();
+            List<CharacterGame> characters = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int length = buffer.getInt();
+                int next = buffer.position() + length;
+                CharacterGame character = JSONCharacterDAO.create(string(table, buffer.getInt()),
+                        string(table, buffer.getInt()), buffer.getInt(), buffer.getInt(), buffer.getInt(),
+                        buffer.getInt(), string(table, buffer.getInt()));
+                if (character != null) {
+                    characters.add(character);
+                }
+                buffer.position(next);
+            }
+            return characters;
+        } catch (RuntimeException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Method to read a snapshot of adventures {@link Adventure}. The encounters are created without monsters.
+     * @param json path of the json file the adventures are stored in.
+     * @param onlyNames true to skip the encounters, creating the adventures without them.
+     * @return a list of adventure {@link Adventure} instances.
+     * @throws IOException if the snapshot can not be read.
+     */
+    static List<Adventure> readAdventures(Path json, boolean onlyNames) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(pathOf(json)));
+        String[] table = readHeader(buffer, ADVENTURES);
+        try {
+            int count = buffer.getInt();
+            List<Adventure> adventures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int length = buffer.getInt();
+                int next = buffer.position() + length;
+                String name = string(table, buffer.getInt());
+                int numEncounters = buffer.getInt();
+                List<Encounter> encounters = new ArrayList<>();
+
+                if (!onlyNames) {
+                    int encounterCount = buffer.getInt();
+                    for (int j = 0; j < encounterCount; j++) {
+                        int types = buffer.getInt();
+                        List<String> monsterTypes = new ArrayList<>(types);
+                        List<Integer> amount = new ArrayList<>(types);
+                        for (int k = 0; k < types; k++) {
+                            monsterTypes.add(string(table, buffer.getInt()));
+                            amount.add(buffer.getInt());
+                        }
+                        encounters.add(new Encounter(monsterTypes, amount, new ArrayList<>()));
+                    }
+                }
+                adventures.add(new Adventure(name, numEncounters, encounters));
+                buffer.position(next);
+            }
+            return adventures;
+        } catch (RuntimeException e) {
+            throw new IOException(e);
+        }
+    }
+}
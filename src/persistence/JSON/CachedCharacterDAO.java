@@ -0,0 +1,251 @@
+package persistence.JSON;
+
+import business.entities.Characters.CharacterGame;
+import persistence.CharacterDAO;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is to keep the character instances {@link CharacterGame} stored in the json file in memory, so the file
+ * is only parsed again when it is modified (its modification time or size changes). Every change is written
+ * through to the JSONCharacterDAO {@link JSONCharacterDAO}.
+ * The characters are indexed by name, so finding, deleting and replacing one does not go through all of them, and
+ * by player {@link PlayerIndex}, so the characters of a player are found without going through all of them either.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+public class CachedCharacterDAO implements CharacterDAO {
+    /**
+     * Instance of the JSONCharacterDAO class {@link JSONCharacterDAO} that reads and writes the file.
+     */
+    private final JSONCharacterDAO jsonDao;
+
+    /**
+     * Path of the json file the characters are stored in.
+     */
+    private final Path file;
+
+    /**
+     * Path of the journal where the changes to the json file are appended.
+     */
+    private final Path journal;
+
+    /**
+     * Characters of the file by name, in the order they are stored. They are never given to the callers, only
+     * copies of them.
+     */
+    private Map<String, CharacterGame> characters;
+
+    /**
+     * Index of the characters by player.
+     */
+    private final PlayerIndex players;
+
+    /**
+     * Stamp of the json file when the characters were loaded, null if they have to be loaded again.
+     */
+    private FileStamp fileStamp;
+
+    /**
+     * Stamp of the journal when the characters were loaded.
+     */
+    private FileStamp journalStamp;
+
+    /**
+     * Constructor to create a CachedCharacterDAO.
+     */
+    public CachedCharacterDAO() {
+        this(Path.of("data/characters.json"));
+    }
+
+    /**
+     * Constructor to create a CachedCharacterDAO of the characters stored in another json file.
+     * @param file path of the json file.
+     */
+    public CachedCharacterDAO(Path file) {
+        this.jsonDao = new JSONCharacterDAO(file);
+        this.file = file;
+        this.journal = jsonDao.getJournalPath();
+        this.players = new PlayerIndex();
+    }
+
+    /**
+     * Method to load the characters from the files if they have not been loaded yet or the files have changed since.
+     * @return true if the characters are loaded, false if the file is not found.
+     */
+    private boolean load() {
+        FileStamp currentFile = FileStamp.of(file);
+        FileStamp currentJournal = FileStamp.of(journal);
+        if (characters == null || !currentFile.equals(fileStamp) || !currentJournal.equals(journalStamp)) {
+            List<CharacterGame> loaded = jsonDao.read();
+            if (loaded == null) {
+                characters = null;
+                fileStamp = null;
+                return false;
+            }
+            characters = index(loaded);
+            fileStamp = currentFile;
+            journalStamp = currentJournal;
+        }
+        return true;
+    }
+
+    /**
+     * Method to index copies of the given characters by their name, indexing them by player as well.
+     * @param list list of character {@link CharacterGame} instances.
+     * @return a map with a copy of each character by its name, in the same order.
+     */
+    private Map<String, CharacterGame> index(List<CharacterGame> list) {
+        Map<String, CharacterGame> byName = new LinkedHashMap<>();
+        for (CharacterGame character : list) {
+            byName.put(character.getName(), character.copy());
+        }
+        players.clear();
+        for (CharacterGame character : byName.values()) {
+            players.add(character);
+        }
+        return byName;
+    }
+
+    /**
+     * Method to take the stamps of the files after they have been modified through this instance, so the characters
+     * in memory are not loaded again.
+     */
+    private void updateStamps() {
+        fileStamp = FileStamp.of(file);
+        journalStamp = FileStamp.of(journal);
+    }
+
+    /**
+     * A method to read the character {@link CharacterGame} instances. The instances returned are copies, so they can
+     * be modified without affecting the ones stored.
+     * @return a list of character instances {@link CharacterGame} if the file is found. In case is not found,
+     * returns null.
+     */
+    @Override
+    public List<CharacterGame> read() {
+        if (!load()) return null;
+
+        List<CharacterGame> copies = new ArrayList<>(characters.size());
+        for (CharacterGame character : characters.values()) {
+            copies.add(character.copy());
+        }
+        return copies;
+    }
+
+    /**
+     * A method to find a character {@link CharacterGame} by its name through the index.
+     * @param name name of the character.
+     * @return a copy of the character, null if there is no character with that name or the file is not found.
+     */
+    @Override
+    public CharacterGame find(String name) {
+        if (!load()) return null;
+
+        CharacterGame character = characters.get(name);
+        return character == null ? null : character.copy();
+    }
+
+    /**
+     * A method to get the number of characters stored without copying them.
+     * @return an integer with the number of characters, 0 if the file is not found.
+     */
+    @Override
+    public int count() {
+        return load() ? characters.size() : 0;
+    }
+
+    /**
+     * A method to find the characters {@link CharacterGame} of the players whose name contains the given text through
+     * the player index, sorted by player and then by name.
+     * @param player string containing the name of the player or part of it.
+     * @return a list with a copy of the characters found, null if the file is not found.
+     */
+    @Override
+    public List<CharacterGame> findByPlayer(String player) {
+        if (!load()) return null;
+
+        List<CharacterGame> found = new ArrayList<>();
+        for (String name : players.search(player)) {
+            found.add(characters.get(name).copy());
+        }
+        return found;
+    }
+
+    /**
+     * A method to store character {@link CharacterGame} instances in the json file and keep them in memory.
+     * @param characters a list of character {@link CharacterGame} instances to be written in the file.
+     */
+    @Override
+    public void write(List<CharacterGame> characters) {
+        jsonDao.write(characters);
+        this.characters = index(characters);
+        updateStamps();
+    }
+
+    /**
+     * Method to add a character, keeping it in memory as well.
+     * @param character Character instance to be added.
+     */
+    @Override
+    public void addCharacter(CharacterGame character) {
+        boolean loaded = load();
+        jsonDao.addCharacter(character);
+        if (loaded) {
+            CharacterGame previous = characters.put(character.getName(), character.copy());
+            if (previous != null) {
+                players.remove(previous);
+            }
+            players.add(character);
+            updateStamps();
+        }
+    }
+
+    /**
+     * Method to delete a character, removing it from memory as well.
+     * @param character Character instance to be deleted.
+     */
+    @Override
+    public void deleteCharacter(CharacterGame character) {
+        boolean loaded = load();
+        jsonDao.deleteCharacter(character);
+        if (loaded) {
+            CharacterGame previous = characters.remove(character.getName());
+            if (previous != null) {
+                players.remove(previous);
+            }
+            updateStamps();
+        }
+    }
+
+    /**
+     * Method to update a character, replacing it in memory as well.
+     * @param character Character instance to be updated.
+     */
+    @Override
+    public void updateCharacter(CharacterGame character) {
+        boolean loaded = load();
+        jsonDao.updateCharacter(character);
+        if (loaded) {
+            CharacterGame previous = characters.replace(character.getName(), character.copy());
+            if (previous != null) {
+                players.remove(previous);
+                players.add(character);
+            }
+            updateStamps();
+        }
+    }
+
+    /**
+     * Method to make sure all the characters saved have been written in the json file.
+     */
+    @Override
+    public void flush() {
+        jsonDao.flush();
+    }
+}
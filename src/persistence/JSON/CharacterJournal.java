@@ -0,0 +1,237 @@
+package persistence.JSON;
+
+import business.entities.Characters.Adventurer;
+import business.entities.Characters.CharacterGame;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * This class is to keep a log of the changes made to single characters {@link CharacterGame}, so they do not need the
+ * whole json file to be written again. Each change is appended to the log as a json object in its own line.
+ * Callers are expected to synchronize the access to the journal.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+class CharacterJournal {
+    /**
+     * Operation of a record that adds a character.
+     */
+    private static final String ADD = "add";
+
+    /**
+     * Operation of a record that updates a character.
+     */
+    private static final String UPDATE = "update";
+
+    /**
+     * Operation of a record that deletes a character.
+     */
+    private static final String DELETE = "delete";
+
+    /**
+     * Path of the journal file.
+     */
+    private final Path path;
+
+    /**
+     * A gson instance to write and read the characters of the records.
+     */
+    private final Gson gson;
+
+    /**
+     * Constructor to create a journal.
+     * @param path path of the journal file.
+     */
+    CharacterJournal(Path path) {
+        this.path = path;
+        this.gson = new GsonBuilder().excludeFieldsWithoutExposeAnnotation().create();
+    }
+
+    /**
+     * Method to get the path of the journal file.
+     * @return the path of the journal file.
+     */
+    Path getPath() {
+        return path;
+    }
+
+    /**
+     * Method to check if the journal has any record.
+     * @return true if the journal file exists, false if not.
+     */
+    boolean exists() {
+        return Files.exists(path);
+    }
+
+    /**
+     * Method to get the size of the journal.
+     * @return long with the size of the journal file in bytes, 0 if it does not exist.
+     */
+    long size() {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Method to append the addition of a character {@link CharacterGame}.
+     * @param character character instance added.
+     */
+    void appendAdd(CharacterGame character) {
+        appendCharacter(ADD, character);
+    }
+
+    /**
+     * Method to append the new values of a character {@link CharacterGame}.
+     * @param character character instance updated.
+     */
+    void appendUpdate(CharacterGame character) {
+        appendCharacter(UPDATE, character);
+    }
+
+    /**
+     * Method to append a record with a whole character {@link CharacterGame}.
+     * @param op string with the operation of the record.
+     * @param character character instance of the record.
+     */
+    private void appendCharacter(String op, CharacterGame character) {
+        JsonObject record = new JsonObject();
+        record.addProperty("op", op);
+        record.add("character", gson.toJsonTree(character));
+        append(record);
+    }
+
+    /**
+     * Method to append the removal of a character {@link CharacterGame}.
+     * @param name string containing the name of the character removed.
+     */
+    void appendDelete(String name) {
+        JsonObject record = new JsonObject();
+        record.addProperty("op", DELETE);
+        record.addProperty("name", name);
+        append(record);
+    }
+
+    /**
+     * Method to append a record in its own line. If the last record was left half written, without its line break,
+     * the line is ended first so the new record is not joined to it. The IOException is ignored as the journal is
+     * next to the json file, which was previously checked to be found.
+     * @param record json object with the record.
+     */
+    private void append(JsonObject record) {
+        try {
+            String line = record + "\n";
+            if (!endsWithLineBreak()) {
+                line = "\n" + line;
+            }
+            Files.writeString(path, line, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException ignored) {}
+    }
+
+    /**
+     * Method to check if the journal ends with a line break, reading only its last byte.
+     * @return true if the journal is empty, does not exist or its last line is complete, false otherwise.
+     * @throws IOException if the journal file can not be read.
+     */
+    private boolean endsWithLineBreak() throws IOException {
+        if (!Files.exists(path)) return true;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() == 0) return true;
+
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, channel.size() - 1);
+            return last.get(0) == '\n';
+        }
+    }
+
+    /**
+     * Method to apply all the records of the journal, in order, over a set of characters {@link CharacterGame}.
+     * If a record can not be read (it was left half written) it is ignored, as the ones after it are in lines of
+     * their own.
+     * @param characters map with the characters by their name, in the order they are listed.
+     */
+    void replay(Map<String, CharacterGame> characters) {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+
+                try {
+                    apply(JsonParser.parseString(line).getAsJsonObject(), characters);
+                } catch (JsonParseException | IllegalStateException | UnsupportedOperationException ignored) {}
+            }
+        } catch (IOException ignored) {}
+    }
+
+    /**
+     * Method to apply a record of the journal over a set of characters {@link CharacterGame}. Records without an
+     * operation or the data it needs are ignored.
+     * @param record json object with the record.
+     * @param characters map with the characters by their name, in the order they are listed.
+     */
+    private void apply(JsonObject record, Map<String, CharacterGame> characters) {
+        JsonElement op = record.get("op");
+        if (op == null || !op.isJsonPrimitive()) return;
+
+        switch (op.getAsString()) {
+            case ADD -> {
+                CharacterGame character = character(record);
+                if (character != null) {
+                    characters.put(character.getName(), character);
+                }
+            }
+            case UPDATE -> {
+                CharacterGame character = character(record);
+                if (character != null) {
+                    characters.replace(character.getName(), character);
+                }
+            }
+            case DELETE -> {
+                JsonElement name = record.get("name");
+                if (name != null && name.isJsonPrimitive()) {
+                    characters.remove(name.getAsString());
+                }
+            }
+        }
+    }
+
+    /**
+     * Method to read the character {@link CharacterGame} of a record.
+     * @param record json object with the record.
+     * @return the character of the right class, null if the record has no valid character.
+     */
+    private CharacterGame character(JsonObject record) {
+        JsonElement character = record.get("character");
+        if (character == null || !character.isJsonObject()) return null;
+
+        Adventurer read = gson.fromJson(character, Adventurer.class);
+        return read.getName() == null ? null : JSONCharacterDAO.create(read);
+    }
+
+    /**
+     * Method to remove all the records of the journal.
+     * @throws IOException if the journal file can not be removed.
+     */
+    void clear() throws IOException {
+        Files.deleteIfExists(path);
+    }
+}
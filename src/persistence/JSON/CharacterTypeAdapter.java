@@ -0,0 +1,75 @@
+package persistence.JSON;
+
+import business.entities.Characters.CharacterGame;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * This class is to read and write character instances {@link CharacterGame} from and to json without reflection.
+ * When reading, the character is created directly with the class stored in it.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+public class CharacterTypeAdapter extends TypeAdapter<CharacterGame> {
+
+    /**
+     * Method to write a character {@link CharacterGame} instance as a json object, only with its persisted traits.
+     * @param out writer where the character is written.
+     * @param character character {@link CharacterGame} instance to be written.
+     * @throws IOException if the character can not be written.
+     */
+    @Override
+    public void write(JsonWriter out, CharacterGame character) throws IOException {
+        if (character == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("name").value(character.getName());
+        out.name("player").value(character.getPlayer());
+        out.name("xp").value(character.getXp());
+        out.name("body").value(character.getBody());
+        out.name("mind").value(character.getMind());
+        out.name("spirit").value(character.getSpirit());
+        out.name("class").value(character.getClassType());
+        out.endObject();
+    }
+
+    /**
+     * Method to read a character {@link CharacterGame} instance from a json object.
+     * @param in reader positioned at the beginning of the character object.
+     * @return an instance of the class of the character, null if the class is unknown.
+     * @throws IOException if the character can not be read.
+     */
+    @Override
+    public CharacterGame read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String name = null, player = null, classType = null;
+        int xp = 0, body = 0, mind = 0, spirit = 0;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "name" -> name = in.nextString();
+                case "player" -> player = in.nextString();
+                case "xp" -> xp = in.nextInt();
+                case "body" -> body = in.nextInt();
+                case "mind" -> mind = in.nextInt();
+                case "spirit" -> spirit = in.nextInt();
+                case "class" -> classType = in.nextString();
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return JSONCharacterDAO.create(name, player, xp, body, mind, spirit, classType);
+    }
+}
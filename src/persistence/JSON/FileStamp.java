@@ -0,0 +1,62 @@
+package persistence.JSON;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * This class is to represent the state of a file (last modification time and size) at a given moment, so it can be
+ * known if the file has changed since then without reading its content.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+final class FileStamp {
+    /**
+     * Stamp used for files that do not exist.
+     */
+    static final FileStamp MISSING = new FileStamp(-1, -1);
+
+    // last modification time of the file in milliseconds.
+    private final long modified;
+    // size of the file in bytes.
+    private final long size;
+
+    /**
+     * Constructor with the parameters to create a file stamp.
+     * @param modified long containing the last modification time of the file in milliseconds.
+     * @param size long containing the size of the file in bytes.
+     */
+    private FileStamp(long modified, long size) {
+        this.modified = modified;
+        this.size = size;
+    }
+
+    /**
+     * Method to get the current stamp of a file.
+     * @param path path of the file.
+     * @return the stamp of the file, or {@link #MISSING} if it can not be accessed.
+     */
+    static FileStamp of(Path path) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            return new FileStamp(attributes.lastModifiedTime().toMillis(), attributes.size());
+        } catch (IOException e) {
+            return MISSING;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof FileStamp)) return false;
+        FileStamp stamp = (FileStamp) o;
+        return modified == stamp.modified && size == stamp.size;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(modified) * 31 + Long.hashCode(size);
+    }
+}
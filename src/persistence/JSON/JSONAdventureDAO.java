@@ -1,91 +1,224 @@
 package persistence.JSON;
 
 import business.entities.Adventure;
-import business.entities.Characters.CharacterGame;
 import business.entities.Encounter;
-import business.entities.Monsters.Boss;
-import business.entities.Monsters.Monster;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
 import persistence.AdventureDAO;
 
-import java.io.FileNotFoundException;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /**
  * This class is to store and read adventure instances {@link Adventure} information from a json file.
+ * Writes are delayed through the WriteBehindQueue {@link WriteBehindQueue}, so several of them in a row are written
+ * only once. Any pending write is done before reading the file.
+ * A binary snapshot {@link BinarySnapshot} of the json file is kept next to it, and read instead of it while it is
+ * up to date.
  *
  * @author Adrián Sánchez
  * @version 1.0 28/06/2023
  */
 public class JSONAdventureDAO implements AdventureDAO {
     /**
-     * A gson instance to read the information from the json file
+     * Lock shared by all the instances, so they never write their files at the same time.
      */
-    private final Gson gson;
+    private static final Object LOCK = new Object();
+
+    /**
+     * Path of the json file.
+     */
+    private final Path file;
 
     /**
      * Constructor to create a JSONAdventureDAO.
      */
-    public JSONAdventureDAO() { this.gson = new Gson(); }
+    public JSONAdventureDAO() {
+        this(Path.of("data/adventures.json"));
+    }
+
+    /**
+     * Constructor to create a JSONAdventureDAO that stores the adventures in another json file.
+     * @param file path of the json file.
+     */
+    public JSONAdventureDAO(Path file) {
+        this.file = file;
+    }
 
     /**
-     * A method to read the adventure {@link Adventure} instances from a json file.
+     * A method to read the adventure {@link Adventure} instances from a json file. The file is read in a single pass,
+     * building each adventure with its encounters directly. Its binary snapshot {@link BinarySnapshot} is read instead
+     * if it is up to date, if not it is written after reading the json file, so the next read is faster.
      * @return a list of adventure instances {@link Adventure} if the file is found. In case is not found,
      * returns null.
      */
     public List<Adventure> read() {
-        try {
-            JsonArray array = JsonParser.parseReader(new FileReader("data/adventures.json")).getAsJsonArray();
-
-            Adventure[] adventureArr = gson.fromJson(array, Adventure[].class);
-
-            List<Adventure> adventures = new ArrayList<>(adventureArr.length);
-
-            for (int i = 0; i < adventureArr.length; i++) {
-                List<Encounter> encounters = new ArrayList<>();
-                for (int j = 0; j < adventureArr[i].getNumEncounters(); j++) {
-                    Encounter encounter = adventureArr[i].getEncounters().get(j);
-                    List<Monster> monsters = new ArrayList<>();
-                    for (int k = 0; k < adventureArr[i].getEncounters().get(j).getMonsters().size(); k++) {
-                        Monster monster = adventureArr[i].getEncounters().get(j).getMonsters().get(k);
-                        if (monster.getChallenge().equals("Boss")) {
-                            monsters.add(new Boss(monster.getName(), monster.getChallenge(), monster.getExperience(),
-                                    monster.getHitPoints(), monster.getInitiative(), monster.getDamageDice(), monster.getDamageType()));
-                        } else {
-                            monsters.add(new Monster(monster.getName(), monster.getChallenge(), monster.getExperience(),
-                                    monster.getHitPoints(), monster.getInitiative(), monster.getDamageDice(), monster.getDamageType()));
-                        }
-                    }
-                    encounters.add(new Encounter(encounter.getMonsterTypes(), encounter.getAmount(), monsters));
+        List<Adventure> adventures = readSnapshot(false);
+        if (adventures != null) {
+            return adventures;
+        }
+
+        try (JSONAdventureReader reader = openReader()) {
+            adventures = new ArrayList<>();
+            while (reader.hasNext()) {
+                adventures.add(reader.next());
+            }
+            try {
+                BinarySnapshot.writeAdventures(file, adventures);
+            } catch (IOException ignored) {}
+            return adventures;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A method to read only the names of the adventure {@link Adventure} instances from a json file, without
+     * building their encounters.
+     * @return a list with the names of the adventures if the file is found. In case is not found, returns null.
+     */
+    @Override
+    public List<String> readNames() {
+        List<Adventure> adventures = readSnapshot(true);
+        if (adventures != null) {
+            List<String> names = new ArrayList<>(adventures.size());
+            for (Adventure adventure : adventures) {
+                names.add(adventure.getName());
+            }
+            return names;
+        }
+
+        try (JSONAdventureReader reader = openReader()) {
+            List<String> names = new ArrayList<>();
+            while (reader.hasNext()) {
+                names.add(reader.nextName());
+            }
+            return names;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A method to read a single adventure {@link Adventure} from a json file. Only the adventure with the given name
+     * is built, the rest are skipped.
+     * @param name string containing the name of the adventure.
+     * @return the adventure {@link Adventure} instance, null if the file or the adventure are not found.
+     */
+    @Override
+    public Adventure read(String name) {
+        List<Adventure> adventures = readSnapshot(false);
+        if (adventures != null) {
+            for (Adventure adventure : adventures) {
+                if (adventure.getName().equals(name)) {
+                    return adventure;
                 }
-                adventures.add(new Adventure(adventureArr[i].getName(), adventureArr[i].getNumEncounters(), encounters));
             }
+            return null;
+        }
 
-            return adventures;
-        } catch (FileNotFoundException e) {
+        try (JSONAdventureReader reader = openReader()) {
+            while (reader.hasNext()) {
+                Adventure adventure = reader.next(name);
+                if (adventure != null) {
+                    return adventure;
+                }
+            }
+            return null;
+        } catch (IOException e) {
             return null;
         }
     }
 
     /**
-     * A method to store character {@link Adventure} instances in a json file.
-     * The IOException is ignored as it previously checked that the file is found.
+     * A method to store adventure {@link Adventure} instances in a json file.
+     * Each encounter {@link Encounter} is stored only with its monster types and the amount of each of them, as the
+     * monsters are created from them when the adventure is played.
+     * The write is delayed, if more adventures are written before it is done only the last ones are written.
      * @param adventures a list of adventure {@link Adventure} instances to be written in the file.
      */
     public void write(List<Adventure> adventures) {
-        Gson gson = new GsonBuilder().setPrettyPrinting().create();
-        String json = gson.toJson(adventures);
-        try (FileWriter writer = new FileWriter("data/adventures.json")) {
-            writer.write(json);
+        List<Adventure> snapshot = new ArrayList<>(adventures);
+        WriteBehindQueue.getInstance().submit(file, LOCK, () -> {
+            WriteBehindQueue.replace(file, out -> {
+                JsonWriter writer = new JsonWriter(out);
+                writer.setIndent("  ");
+                writer.beginArray();
+                for (Adventure adventure : snapshot) {
+                    writeAdventure(writer, adventure);
+                }
+                writer.endArray();
+                writer.flush();
+            });
+            try {
+                BinarySnapshot.writeAdventures(file, snapshot);
+            } catch (IOException ignored) {}
+        });
+    }
+
+    /**
+     * A method to do now the pending write of the json file, if there is one.
+     */
+    @Override
+    public void flush() {
+        WriteBehindQueue.getInstance().flush(file);
+    }
+
+    /**
+     * A method to read the adventure {@link Adventure} instances from the binary snapshot {@link BinarySnapshot} of
+     * the json file, doing first any pending write of it.
+     * @param onlyNames true to create the adventures without their encounters.
+     * @return a list of adventure instances {@link Adventure}, null if the snapshot is not up to date or can not be
+     * read.
+     */
+    private List<Adventure> readSnapshot(boolean onlyNames) {
+        flush();
+        if (!BinarySnapshot.isUpToDate(file)) return null;
+        try {
+            return BinarySnapshot.readAdventures(file, onlyNames);
         } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A method to open a reader of the json file, doing first any pending write of it.
+     * @return a reader positioned before the first adventure {@link Adventure} of the file.
+     * @throws IOException if the file is not found or can not be read.
+     */
+    private JSONAdventureReader openReader() throws IOException {
+        flush();
+        return new JSONAdventureReader(new FileReader(file.toFile()));
+    }
+
+    /**
+     * A method to write an adventure {@link Adventure} as a json object.
+     * @param writer json writer where the adventure is written.
+     * @param adventure adventure {@link Adventure} instance to be written.
+     * @throws IOException if the adventure can not be written.
+     */
+    private void writeAdventure(JsonWriter writer, Adventure adventure) throws IOException {
+        writer.beginObject();
+        writer.name("name").value(adventure.getName());
+        writer.name("numEncounters").value(adventure.getNumEncounters());
+        writer.name("encounters").beginArray();
+        for (Encounter encounter : adventure.getEncounters()) {
+            writer.beginObject();
+            writer.name("monsterTypes").beginArray();
+            for (String monsterType : encounter.getMonsterTypes()) {
+                writer.value(monsterType);
+            }
+            writer.endArray();
+            writer.name("amount").beginArray();
+            for (Integer amount : encounter.getAmount()) {
+                writer.value(amount);
+            }
+            writer.endArray();
+            writer.endObject();
         }
+        writer.endArray();
+        writer.endObject();
     }
 }
@@ -0,0 +1,183 @@
+package persistence.JSON;
+
+import business.entities.Adventure;
+import business.entities.Encounter;
+import business.entities.Monsters.Monster;
+import com.google.gson.stream.JsonReader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is to go through the adventures {@link Adventure} of a json array one by one, building each of them in a
+ * single pass over the input. An adventure can also be visited only by its name, skipping its encounters
+ * {@link Encounter} without creating them.
+ * Encounters are read only by their monster types and amounts. Files written with the monsters {@link Monster}
+ * embedded in each encounter are still accepted, the embedded monsters are skipped as they are created from the
+ * monster types when the adventure is played.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+public class JSONAdventureReader implements Closeable {
+    /**
+     * Reader of the json tokens.
+     */
+    private final JsonReader reader;
+
+    /**
+     * Constructor to create a reader positioned before the first adventure of the array.
+     * @param in reader containing a json array of adventures.
+     * @throws IOException if the input can not be read or is not an array.
+     */
+    public JSONAdventureReader(Reader in) throws IOException {
+        this.reader = new JsonReader(in);
+        reader.beginArray();
+    }
+
+    /**
+     * Method to check if there are more adventures to read.
+     * @return true if there is another adventure, false if the end of the array was reached.
+     * @throws IOException if the input can not be read.
+     */
+    public boolean hasNext() throws IOException {
+        return reader.hasNext();
+    }
+
+    /**
+     * Method to read the next adventure {@link Adventure} with all its encounters {@link Encounter}.
+     * @return the adventure read.
+     * @throws IOException if the input can not be read.
+     */
+    public Adventure next() throws IOException {
+        String name = null;
+        int numEncounters = 0;
+        List<Encounter> encounters = new ArrayList<>();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name" -> name = reader.nextString();
+                case "numEncounters" -> numEncounters = reader.nextInt();
+                case "encounters" -> {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        encounters.add(readEncounter());
+                    }
+                    reader.endArray();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new Adventure(name, numEncounters, encounters);
+    }
+
+    /**
+     * Method to read the next adventure {@link Adventure} only if it has the given name. When the name is found
+     * before the encounters and it is a different one, the rest of the adventure is skipped without building it.
+     * @param name string containing the name of the adventure wanted.
+     * @return the adventure read if it has the given name, null if not.
+     * @throws IOException if the input can not be read.
+     */
+    public Adventure next(String name) throws IOException {
+        String currentName = null;
+        int numEncounters = 0;
+        List<Encounter> encounters = new ArrayList<>();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name" -> {
+                    currentName = reader.nextString();
+                    if (!currentName.equals(name)) {
+                        while (reader.hasNext()) {
+                            reader.skipValue();
+                        }
+                    }
+                }
+                case "numEncounters" -> numEncounters = reader.nextInt();
+                case "encounters" -> {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        encounters.add(readEncounter());
+                    }
+                    reader.endArray();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return name.equals(currentName) ? new Adventure(currentName, numEncounters, encounters) : null;
+    }
+
+    /**
+     * Method to read only the name of the next adventure {@link Adventure}, skipping its encounters.
+     * @return the name of the adventure.
+     * @throws IOException if the input can not be read.
+     */
+    public String nextName() throws IOException {
+        String name = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("name")) {
+                name = reader.nextString();
+            }
+            else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return name;
+    }
+
+    /**
+     * Method to read an encounter {@link Encounter} object. The encounter is returned without monsters.
+     * @return the encounter read.
+     * @throws IOException if the input can not be read.
+     */
+    private Encounter readEncounter() throws IOException {
+        List<String> monsterTypes = new ArrayList<>();
+        List<Integer> amount = new ArrayList<>();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "monsterTypes" -> {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        monsterTypes.add(reader.nextString());
+                    }
+                    reader.endArray();
+                }
+                case "amount" -> {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        amount.add(reader.nextInt());
+                    }
+                    reader.endArray();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new Encounter(monsterTypes, amount, new ArrayList<>());
+    }
+
+    /**
+     * Method to close the underlying input.
+     * @throws IOException if the input can not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
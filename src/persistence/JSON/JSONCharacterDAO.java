@@ -1,6 +1,5 @@
 package persistence.JSON;
 
-import business.entities.Adventure;
 import business.entities.Characters.*;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -8,91 +7,292 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonParser;
 import persistence.CharacterDAO;
 
-import java.io.FileNotFoundException;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * This class is to store and read character instances {@link CharacterGame} information from a json file.
+ * Single character changes are not written in the json file, they are appended to a journal {@link CharacterJournal}
+ * next to it and applied over the json file when reading. Once the journal grows past a size threshold, it is
+ * folded into the json file in the background.
+ * A binary snapshot {@link BinarySnapshot} of the json file is kept next to it, and read instead of it while it is
+ * up to date.
+ * Writes of the whole list of characters are delayed through the WriteBehindQueue {@link WriteBehindQueue}, so several
+ * of them in a row are written only once.
  *
  * @author Adrián Sánchez
  * @version 1.0 28/06/2023
  */
 public class JSONCharacterDAO implements CharacterDAO {
+    /**
+     * Size in bytes the journal has to reach to be folded into the json file.
+     */
+    private static final long COMPACTION_THRESHOLD = 64 * 1024;
+
+    /**
+     * Lock shared by all the instances, so they never write their files at the same time.
+     */
+    private static final Object LOCK = new Object();
+
+    /**
+     * Thread where the journal is folded into the json file.
+     */
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "characters-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     /**
      * A gson instance to read the information from the json file
      */
     private final Gson gson;
 
+    /**
+     * Path of the json file.
+     */
+    private final Path file;
+
+    /**
+     * Journal where the changes of single characters are appended.
+     */
+    private final CharacterJournal journal;
+
     /**
      * Constructor to create a JSONCharacterDAO.
      */
-    public JSONCharacterDAO() { this.gson = new Gson(); }
+    public JSONCharacterDAO() {
+        this(Path.of("data/characters.json"));
+    }
+
+    /**
+     * Constructor to create a JSONCharacterDAO that stores the characters in another json file. Its journal is kept
+     * next to it, with the same name and the "journal" extension.
+     * @param file path of the json file.
+     */
+    public JSONCharacterDAO(Path file) {
+        this.gson = new Gson();
+        this.file = file;
+        this.journal = new CharacterJournal(file.resolveSibling(file.getFileName().toString()
+                .replaceFirst("\\.json$", "") + ".journal"));
+    }
+
+    /**
+     * Method to get the path of the journal, so changes in it can be detected.
+     * @return the path of the journal file.
+     */
+    public Path getJournalPath() {
+        return journal.getPath();
+    }
 
     /**
-     * A method to read the character {@link CharacterGame} instances from a json file.
+     * A method to read the character {@link CharacterGame} instances from a json file, applying the changes of the
+     * journal over them. A pending write of the file is done first.
      * @return a list of character instances {@link CharacterGame} if the file is found. In case is not found,
      * returns null.
      */
     public List<CharacterGame> read() {
-        try {
-            JsonArray array = JsonParser.parseReader(new FileReader("data/characters.json")).getAsJsonArray();
+        synchronized (LOCK) {
+            flush();
+            List<CharacterGame> characters = readFile();
+            if (characters == null || !journal.exists()) {
+                return characters;
+            }
+
+            Map<String, CharacterGame> byName = new LinkedHashMap<>();
+            for (CharacterGame character : characters) {
+                byName.put(character.getName(), character);
+            }
+            journal.replay(byName);
+            return new ArrayList<>(byName.values());
+        }
+    }
+
+    /**
+     * A method to read the character {@link CharacterGame} instances stored in the json file only. Its binary
+     * snapshot {@link BinarySnapshot} is read instead if it is up to date, if not it is written after reading the
+     * json file, so the next read is faster.
+     * @return a list of character instances {@link CharacterGame} if the file is found. In case is not found,
+     * returns null.
+     */
+    private List<CharacterGame> readFile() {
+        if (BinarySnapshot.isUpToDate(file)) {
+            try {
+                return BinarySnapshot.readCharacters(file);
+            } catch (IOException ignored) {}
+        }
+
+        try (FileReader reader = new FileReader(file.toFile())) {
+            JsonArray array = JsonParser.parseReader(reader).getAsJsonArray();
 
             CharacterGame[] characterArr = gson.fromJson(array, Adventurer[].class);
 
             List<CharacterGame> characters = new ArrayList<>(characterArr.length);
 
-            for (int i = 0; i < characterArr.length; i++) {
-                switch (characterArr[i].getClassType()) {
-                    case "Adventurer" -> characters.add(new Adventurer(characterArr[i].getName(), characterArr[i].getPlayer(),
-                            characterArr[i].getXp(), characterArr[i].getBody(), characterArr[i].getMind(), characterArr[i].getSpirit(),
-                            characterArr[i].getClassType()));
-                    case "Warrior" -> characters.add(new Warrior(characterArr[i].getName(), characterArr[i].getPlayer(),
-                            characterArr[i].getXp(), characterArr[i].getBody(), characterArr[i].getMind(), characterArr[i].getSpirit(),
-                            characterArr[i].getClassType()));
-                    case "Champion" -> characters.add(new Champion(characterArr[i].getName(), characterArr[i].getPlayer(),
-                            characterArr[i].getXp(), characterArr[i].getBody(), characterArr[i].getMind(), characterArr[i].getSpirit(),
-                            characterArr[i].getClassType()));
-                    case "Cleric" -> characters.add(new Cleric(characterArr[i].getName(), characterArr[i].getPlayer(),
-                            characterArr[i].getXp(), characterArr[i].getBody(), characterArr[i].getMind(), characterArr[i].getSpirit(),
-                            characterArr[i].getClassType()));
-                    case "Paladin" -> characters.add(new Paladin(characterArr[i].getName(), characterArr[i].getPlayer(),
-                            characterArr[i].getXp(), characterArr[i].getBody(), characterArr[i].getMind(), characterArr[i].getSpirit(),
-                            characterArr[i].getClassType()));
-                    case "Wizard" -> characters.add(new Wizard(characterArr[i].getName(), characterArr[i].getPlayer(),
-                            characterArr[i].getXp(), characterArr[i].getBody(), characterArr[i].getMind(), characterArr[i].getSpirit(),
-                            characterArr[i].getClassType()));
-
+            for (CharacterGame character : characterArr) {
+                CharacterGame created = create(character);
+                if (created != null) {
+                    characters.add(created);
                 }
             }
 
+            writeSnapshot(characters);
             return characters;
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             return null;
         }
     }
 
     /**
-     * A method to store character {@link CharacterGame} instances in a json file.
-     * The IOException is ignored as it previously checked that the file is found.
+     * A method to write the binary snapshot {@link BinarySnapshot} of the json file. The IOException is ignored, as
+     * the json file is read while there is no snapshot.
+     * @param characters a list of character {@link CharacterGame} instances stored in the json file.
+     */
+    private void writeSnapshot(List<CharacterGame> characters) {
+        try {
+            BinarySnapshot.writeCharacters(file, characters);
+        } catch (IOException ignored) {}
+    }
+
+    /**
+     * A method to create the character {@link CharacterGame} of the right class from the one read by gson.
+     * @param character character read from json, with the class stored in its class type.
+     * @return an instance of the class of the character, null if the class is unknown.
+     */
+    public static CharacterGame create(CharacterGame character) {
+        return create(character.getName(), character.getPlayer(), character.getXp(), character.getBody(),
+                character.getMind(), character.getSpirit(), character.getClassType());
+    }
+
+    /**
+     * A method to create the character {@link CharacterGame} of the right class from its traits.
+     * @param name a string containing the name of the character.
+     * @param player a string containing the name of the player who owns the character.
+     * @param xp an integer containing the number of experience points that the character has.
+     * @param body an integer representing the stat "body" of the character.
+     * @param mind an integer representing the stat "mind" of the character.
+     * @param spirit an integer representing the stat "spirit" of the character.
+     * @param classType a string containing the class of the character.
+     * @return an instance of the class of the character, null if the class is unknown.
+     */
+    static CharacterGame create(String name, String player, int xp, int body, int mind, int spirit,
+                                String classType) {
+        if (classType == null) return null;
+        return switch (classType) {
+            case "Adventurer" -> new Adventurer(name, player, xp, body, mind, spirit, classType);
+            case "Warrior" -> new Warrior(name, player, xp, body, mind, spirit, classType);
+            case "Champion" -> new Champion(name, player, xp, body, mind, spirit, classType);
+            case "Cleric" -> new Cleric(name, player, xp, body, mind, spirit, classType);
+            case "Paladin" -> new Paladin(name, player, xp, body, mind, spirit, classType);
+            case "Wizard" -> new Wizard(name, player, xp, body, mind, spirit, classType);
+            default -> null;
+        };
+    }
+
+    /**
+     * A method to store character {@link CharacterGame} instances in a json file. As the file then contains all the
+     * characters, the journal is emptied when the file is written.
+     * The write is delayed, if more characters are written before it is done only the last ones are written.
      * @param characters a list of character {@link CharacterGame} instances to be written in the file.
      */
     public void write(List<CharacterGame> characters) {
+        List<CharacterGame> snapshot = new ArrayList<>(characters);
+        WriteBehindQueue.getInstance().submit(file, LOCK, () -> {
+            writeFile(snapshot);
+            journal.clear();
+        });
+    }
+
+    /**
+     * A method to do now the pending write of the json file, if there is one.
+     */
+    @Override
+    public void flush() {
+        WriteBehindQueue.getInstance().flush(file);
+    }
+
+    /**
+     * A method to replace the json file with the given characters, writing its binary snapshot
+     * {@link BinarySnapshot} after it.
+     * @param characters a list of character {@link CharacterGame} instances to be written in the file.
+     * @throws IOException if the file can not be written.
+     */
+    private void writeFile(List<CharacterGame> characters) throws IOException {
         GsonBuilder builder = new GsonBuilder().excludeFieldsWithoutExposeAnnotation();
         Gson gson = builder.setPrettyPrinting().create();
-        String json = gson.toJson(characters);
-        try (FileWriter writer = new FileWriter("data/characters.json")) {
-            writer.write(json);
-        } catch (IOException ignored) {}
+        WriteBehindQueue.replace(file, writer -> gson.toJson(characters, writer));
+        writeSnapshot(characters);
+    }
+
+    /**
+     * A method to add a character {@link CharacterGame} by appending it to the journal.
+     * @param character Character instance to be added.
+     */
+    @Override
+    public void addCharacter(CharacterGame character) {
+        synchronized (LOCK) {
+            flush();
+            journal.appendAdd(character);
+        }
+        compactIfNeeded();
     }
 
+    /**
+     * A method to delete a character {@link CharacterGame} by appending its removal to the journal.
+     * @param character Character instance to be deleted.
+     */
     @Override
-    public void deleteCharacter(CharacterGame character) {}
+    public void deleteCharacter(CharacterGame character) {
+        synchronized (LOCK) {
+            flush();
+            journal.appendDelete(character.getName());
+        }
+        compactIfNeeded();
+    }
 
+    /**
+     * A method to update a character {@link CharacterGame} by appending its new values to the journal.
+     * @param character Character instance to be updated.
+     */
     @Override
-    public void updateCharacter(CharacterGame character) {}
+    public void updateCharacter(CharacterGame character) {
+        synchronized (LOCK) {
+            flush();
+            journal.appendUpdate(character);
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * A method to fold the journal into the json file in the background if it has grown past the threshold.
+     */
+    private void compactIfNeeded() {
+        if (journal.size() >= COMPACTION_THRESHOLD) {
+            COMPACTOR.execute(this::compact);
+        }
+    }
+
+    /**
+     * A method to fold the journal into the json file. The IOException is ignored, the journal is kept and
+     * folded on the next try.
+     */
+    private void compact() {
+        synchronized (LOCK) {
+            if (journal.size() < COMPACTION_THRESHOLD) return;
+
+            List<CharacterGame> characters = read();
+            if (characters == null) return;
+            try {
+                writeFile(characters);
+                journal.clear();
+            } catch (IOException ignored) {}
+        }
+    }
 }
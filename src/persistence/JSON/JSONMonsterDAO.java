@@ -1,21 +1,23 @@
 package persistence.JSON;
 
-import business.entities.Adventure;
 import business.entities.Monsters.Boss;
 import business.entities.Monsters.Monster;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
 import persistence.MonsterDAO;
 
-import java.io.FileNotFoundException;
 import java.io.FileReader;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 
 /**
  * This class is to read monster instances {@link Monster} information from a json file.
+ * A binary snapshot {@link BinarySnapshot} of the json file is kept next to it, and read instead of it while it is
+ * up to date.
  *
  * @author Adrián Sánchez
  * @version 1.0 28/06/2023
@@ -26,18 +28,42 @@ public class JSONMonsterDAO implements MonsterDAO {
      */
     private final Gson gson;
 
+    /**
+     * Path of the json file.
+     */
+    private final Path file;
+
     /**
      * Constructor to create a JSONMonsterDAO.
      */
-    public JSONMonsterDAO() { this.gson = new Gson(); }
+    public JSONMonsterDAO() {
+        this(Path.of("data/monsters.json"));
+    }
+
+    /**
+     * Constructor to create a JSONMonsterDAO that reads the monsters from another json file.
+     * @param file path of the json file.
+     */
+    public JSONMonsterDAO(Path file) {
+        this.gson = new Gson();
+        this.file = file;
+    }
 
     /**
-     * A method to read the monster {@link Monster} instances from a json file.
+     * A method to read the monster {@link Monster} instances from a json file. Its binary snapshot
+     * {@link BinarySnapshot} is read instead if it is up to date, if not it is written after reading the json file,
+     * so the next read is faster.
      * @return a list of monster instances {@link Monster} if the file is found. In case is not found, returns null.
      */
     public List<Monster> read() {
-        try {
-            JsonArray array = JsonParser.parseReader(new FileReader("data/monsters.json")).getAsJsonArray();
+        if (BinarySnapshot.isUpToDate(file)) {
+            try {
+                return BinarySnapshot.readMonsters(file);
+            } catch (IOException ignored) {}
+        }
+
+        try (FileReader reader = new FileReader(file.toFile())) {
+            JsonArray array = JsonParser.parseReader(reader).getAsJsonArray();
 
             Monster[] monsterArr = gson.fromJson(array, Monster[].class);
 
@@ -56,9 +82,33 @@ public class JSONMonsterDAO implements MonsterDAO {
                 }
             }
 
+            try {
+                BinarySnapshot.writeMonsters(file, monsters);
+            } catch (IOException ignored) {}
             return monsters;
-        } catch (FileNotFoundException e) {
+        } catch (IOException e) {
             return null;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * A method to replace the json file with the given monster {@link Monster} instances, writing its binary snapshot
+     * {@link BinarySnapshot} after it.
+     * @param monsters a list of monster {@link Monster} instances to be written in the file.
+     * @throws IOException if the file can not be written.
+     */
+    public void write(List<Monster> monsters) throws IOException {
+        MonsterTypeAdapter adapter = new MonsterTypeAdapter();
+        WriteBehindQueue.replace(file, out -> {
+            JsonWriter writer = new JsonWriter(out);
+            writer.setIndent("  ");
+            writer.beginArray();
+            for (Monster monster : monsters) {
+                adapter.write(writer, monster);
+            }
+            writer.endArray();
+            writer.flush();
+        });
+        BinarySnapshot.writeMonsters(file, monsters);
+    }
+}
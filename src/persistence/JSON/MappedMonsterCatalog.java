@@ -0,0 +1,182 @@
+package persistence.JSON;
+
+import business.entities.Monsters.Monster;
+import persistence.MonsterDAO;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is a read-only catalog of the monsters {@link Monster} stored in the json file. The binary snapshot
+ * {@link BinarySnapshot} of the file is mapped in memory and only the position of each monster is kept, indexed by
+ * its name, so finding a monster decodes only its record. The snapshot is created from the json file through
+ * the JSONMonsterDAO {@link JSONMonsterDAO} when it is not up to date, and mapped again when the json file changes.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+public class MappedMonsterCatalog implements MonsterDAO {
+    /**
+     * DAO used to read the json file and write its snapshot.
+     */
+    private final JSONMonsterDAO jsonDao;
+
+    /**
+     * Path of the json file.
+     */
+    private final Path file;
+
+    /**
+     * Stamp of the json file when the snapshot was mapped, null if it is not mapped.
+     */
+    private FileStamp fileStamp;
+
+    /**
+     * Mapped content of the snapshot.
+     */
+    private ByteBuffer buffer;
+
+    /**
+     * Strings of the snapshot table.
+     */
+    private String[] table;
+
+    /**
+     * Position of the record of each monster in the snapshot, in the order they are stored.
+     */
+    private int[] offsets;
+
+    /**
+     * Position of the record of each monster in the snapshot, by name.
+     */
+    private Map<String, Integer> index;
+
+    /**
+     * Constructor to create a MappedMonsterCatalog.
+     */
+    public MappedMonsterCatalog() {
+        this(Path.of("data/monsters.json"));
+    }
+
+    /**
+     * Constructor to create a MappedMonsterCatalog of the monsters of another json file.
+     * @param file path of the json file.
+     */
+    public MappedMonsterCatalog(Path file) {
+        this.jsonDao = new JSONMonsterDAO(file);
+        this.file = file;
+    }
+
+    /**
+     * A method to read all the monster {@link Monster} instances of the catalog.
+     * @return a list of monster instances {@link Monster} if the file is found. In case is not found, returns null.
+     */
+    @Override
+    public synchronized List<Monster> read() {
+        if (!open()) {
+            return jsonDao.read();
+        }
+
+        List<Monster> monsters = new ArrayList<>(offsets.length);
+        for (int offset : offsets) {
+            monsters.add(decode(offset));
+        }
+        return monsters;
+    }
+
+    /**
+     * A method to find a monster {@link Monster} by its name, decoding only its record.
+     * @param name name of the monster.
+     * @return the monster, null if there is no monster with that name or the file is not found.
+     */
+    @Override
+    public synchronized Monster find(String name) {
+        if (!open()) {
+            return MonsterDAO.super.find(name);
+        }
+
+        Integer offset = index.get(name);
+        return offset == null ? null : decode(offset);
+    }
+
+    /**
+     * A method to find several monsters {@link Monster} by their names, decoding only their records.
+     * @param names names of the monsters.
+     * @return map with the monsters found by their name, without the names that have no monster.
+     */
+    @Override
+    public synchronized Map<String, Monster> findAll(Collection<String> names) {
+        if (!open()) {
+            return MonsterDAO.super.findAll(names);
+        }
+
+        Map<String, Monster> found = new HashMap<>();
+        for (String name : names) {
+            Integer offset = index.get(name);
+            if (offset != null) {
+                found.put(name, decode(offset));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * A method to decode the monster {@link Monster} record at a position of the snapshot.
+     * @param offset integer with the position of the record.
+     * @return a new monster {@link Monster} instance.
+     */
+    private Monster decode(int offset) {
+        ByteBuffer record = buffer.duplicate();
+        record.position(offset);
+        return BinarySnapshot.decodeMonster(record, table);
+    }
+
+    /**
+     * A method to map the snapshot and build the index if it is not mapped or the json file has changed since it was.
+     * @return true if the snapshot is mapped, false if it could not be mapped.
+     */
+    private boolean open() {
+        FileStamp current = FileStamp.of(file);
+        if (buffer != null && current.equals(fileStamp)) {
+            return true;
+        }
+
+        buffer = null;
+        if (!BinarySnapshot.isUpToDate(file) && jsonDao.read() == null) {
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(BinarySnapshot.pathOf(file), StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            String[] strings = BinarySnapshot.readHeader(mapped, BinarySnapshot.MONSTERS);
+
+            int count = mapped.getInt();
+            int[] positions = new int[count];
+            Map<String, Integer> names = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                int length = mapped.getInt();
+                positions[i] = mapped.position();
+                names.putIfAbsent(BinarySnapshot.peekMonsterName(mapped, strings), positions[i]);
+                mapped.position(positions[i] + length);
+            }
+
+            table = strings;
+            offsets = positions;
+            index = names;
+            buffer = mapped;
+            fileStamp = current;
+            return true;
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+}
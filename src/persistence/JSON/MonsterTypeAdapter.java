@@ -0,0 +1,79 @@
+package persistence.JSON;
+
+import business.entities.Monsters.Boss;
+import business.entities.Monsters.Monster;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * This class is to read and write monster instances {@link Monster} from and to json without reflection. When reading,
+ * it decides if the monster is a boss {@link Boss} or not while parsing, so the final instance is built directly.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+public class MonsterTypeAdapter extends TypeAdapter<Monster> {
+
+    /**
+     * Method to write a monster {@link Monster} instance as a json object.
+     * @param out writer where the monster is written.
+     * @param monster monster {@link Monster} instance to be written.
+     * @throws IOException if the monster can not be written.
+     */
+    @Override
+    public void write(JsonWriter out, Monster monster) throws IOException {
+        if (monster == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("name").value(monster.getName());
+        out.name("challenge").value(monster.getChallenge());
+        out.name("experience").value(monster.getExperience());
+        out.name("hitPoints").value(monster.getHitPoints());
+        out.name("initiative").value(monster.getInitiative());
+        out.name("damageDice").value(monster.getDamageDice());
+        out.name("damageType").value(monster.getDamageType());
+        out.endObject();
+    }
+
+    /**
+     * Method to read a monster {@link Monster} instance from a json object.
+     * @param in reader positioned at the beginning of the monster object.
+     * @return a boss {@link Boss} instance if its challenge is "Boss", a monster {@link Monster} instance if not.
+     * @throws IOException if the monster can not be read.
+     */
+    @Override
+    public Monster read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String name = null, challenge = null, damageDice = null, damageType = null;
+        int experience = 0, hitPoints = 0, initiative = 0;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "name" -> name = in.nextString();
+                case "challenge" -> challenge = in.nextString();
+                case "experience" -> experience = in.nextInt();
+                case "hitPoints" -> hitPoints = in.nextInt();
+                case "initiative" -> initiative = in.nextInt();
+                case "damageDice" -> damageDice = in.nextString();
+                case "damageType" -> damageType = in.nextString();
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if ("Boss".equals(challenge)) {
+            return new Boss(name, challenge, experience, hitPoints, initiative, damageDice, damageType);
+        }
+        return new Monster(name, challenge, experience, hitPoints, initiative, damageDice, damageType);
+    }
+}
@@ -0,0 +1,134 @@
+package persistence.JSON;
+
+import business.entities.Characters.CharacterGame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * This class is to find the characters {@link CharacterGame} of a player without going through all of them. The
+ * names of the characters are kept by player, and the players by every piece of up to three letters (n-gram) of their
+ * name, so the players whose name contains a text are found from the pieces of that text. Player names are compared
+ * in lower case.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+final class PlayerIndex {
+    /**
+     * Maximum length of the pieces the player names are indexed by.
+     */
+    private static final int GRAM = 3;
+
+    // names of the characters of each player, sorted.
+    private final Map<String, TreeSet<String>> namesByPlayer = new HashMap<>();
+    // players whose name contains each piece.
+    private final Map<String, Set<String>> playersByGram = new HashMap<>();
+
+    /**
+     * Method to remove all the characters from the index.
+     */
+    void clear() {
+        namesByPlayer.clear();
+        playersByGram.clear();
+    }
+
+    /**
+     * Method to add a character to the index.
+     * @param character character {@link CharacterGame} instance to be added.
+     */
+    void add(CharacterGame character) {
+        String player = character.getPlayer().toLowerCase();
+        TreeSet<String> names = namesByPlayer.get(player);
+        if (names == null) {
+            names = new TreeSet<>();
+            namesByPlayer.put(player, names);
+            for (String gram : grams(player)) {
+                playersByGram.computeIfAbsent(gram, key -> new HashSet<>()).add(player);
+            }
+        }
+        names.add(character.getName());
+    }
+
+    /**
+     * Method to remove a character from the index.
+     * @param character character {@link CharacterGame} instance to be removed.
+     */
+    void remove(CharacterGame character) {
+        String player = character.getPlayer().toLowerCase();
+        TreeSet<String> names = namesByPlayer.get(player);
+        if (names == null || !names.remove(character.getName()) || !names.isEmpty()) return;
+
+        namesByPlayer.remove(player);
+        for (String gram : grams(player)) {
+            Set<String> players = playersByGram.get(gram);
+            players.remove(player);
+            if (players.isEmpty()) {
+                playersByGram.remove(gram);
+            }
+        }
+    }
+
+    /**
+     * Method to get the names of the characters whose player contains the given text, ignoring case. They are sorted
+     * by player and then by name.
+     * @param text string containing the name of the player or part of it, not empty.
+     * @return a list with the names of the characters found.
+     */
+    List<String> search(String text) {
+        String query = text.toLowerCase();
+        List<String> players = new ArrayList<>(candidates(query));
+        Collections.sort(players);
+
+        List<String> names = new ArrayList<>();
+        for (String player : players) {
+            if (query.length() <= GRAM || player.contains(query)) {
+                names.addAll(namesByPlayer.get(player));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Method to get the players that may contain the given text. For texts of up to three letters, they are exactly
+     * the players that contain it; for longer ones, the players that contain the least common of its pieces.
+     * @param query string in lower case.
+     * @return a set with the players, in lower case.
+     */
+    private Set<String> candidates(String query) {
+        if (query.length() <= GRAM) {
+            return playersByGram.getOrDefault(query, Collections.emptySet());
+        }
+
+        Set<String> smallest = null;
+        for (int i = 0; i + GRAM <= query.length(); i++) {
+            Set<String> players = playersByGram.get(query.substring(i, i + GRAM));
+            if (players == null) return Collections.emptySet();
+            if (smallest == null || players.size() < smallest.size()) {
+                smallest = players;
+            }
+        }
+        return smallest;
+    }
+
+    /**
+     * Method to get all the different pieces of up to three letters of a player name.
+     * @param player string with the name of the player in lower case.
+     * @return a set with the pieces.
+     */
+    private static Set<String> grams(String player) {
+        Set<String> grams = new HashSet<>();
+        for (int length = 1; length <= GRAM; length++) {
+            for (int i = 0; i + length <= player.length(); i++) {
+                grams.add(player.substring(i, i + length));
+            }
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,206 @@
+package persistence.JSON;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is to delay the writes of the json files, so all the writes of a file requested within a time window are
+ * done as a single one with the last content requested. Files are replaced atomically: the content is written in a
+ * temporary file that is then moved over the original one.
+ * Pending writes are done when the window ends, when they are flushed explicitly or when the program exits.
+ *
+ * @author Adrián Sánchez
+ * @version 1.0 28/06/2023
+ */
+public final class WriteBehindQueue {
+    /**
+     * Default time in milliseconds the writes of a file are delayed.
+     */
+    private static final long DEFAULT_WINDOW = 250;
+
+    /**
+     * Single instance of the queue, shared by all the json DAOs.
+     */
+    private static final WriteBehindQueue INSTANCE = new WriteBehindQueue();
+
+    /**
+     * Interface for the action that writes the pending content of a file.
+     */
+    @FunctionalInterface
+    public interface WriteAction {
+        /**
+         * Method to write the content.
+         * @throws IOException if the content can not be written.
+         */
+        void write() throws IOException;
+    }
+
+    /**
+     * Interface for the code that writes the content of a file.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        /**
+         * Method to write the content of the file.
+         * @param writer writer of the file.
+         * @throws IOException if the content can not be written.
+         */
+        void write(Writer writer) throws IOException;
+    }
+
+    /**
+     * Class to represent a write waiting to be done.
+     */
+    private static final class PendingWrite {
+        // lock held while the write is done.
+        private final Object lock;
+        // action that writes the content.
+        private final WriteAction action;
+
+        private PendingWrite(Object lock, WriteAction action) {
+            this.lock = lock;
+            this.action = action;
+        }
+    }
+
+    /**
+     * Pending writes by the file they write.
+     */
+    private final Map<Path, PendingWrite> pending;
+
+    /**
+     * Thread where the writes are done when their window ends.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Time in milliseconds the writes of a file are delayed.
+     */
+    private volatile long window;
+
+    /**
+     * Constructor to create the queue.
+     */
+    private WriteBehindQueue() {
+        this.pending = new HashMap<>();
+        this.window = DEFAULT_WINDOW;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "write-behind-shutdown"));
+    }
+
+    /**
+     * Method to get the queue.
+     * @return the queue shared by all the json DAOs.
+     */
+    public static WriteBehindQueue getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Method to set the time the writes are delayed. A window of 0 makes every write be done immediately.
+     * @param millis long with the time in milliseconds.
+     */
+    public void setWindow(long millis) {
+        this.window = Math.max(0, millis);
+    }
+
+    /**
+     * Method to request a write of a file. If there is already a write of the file pending, it is replaced by this
+     * one, so only the last content is written.
+     * @param file path of the file to be written.
+     * @param lock object the caller synchronizes its access to the file with. It is held while the write is done.
+     * @param action action that writes the file.
+     */
+    public void submit(Path file, Object lock, WriteAction action) {
+        boolean schedule;
+        synchronized (pending) {
+            schedule = pending.put(file, new PendingWrite(lock, action)) == null;
+        }
+        if (window == 0) {
+            flush(file);
+        }
+        else if (schedule) {
+            scheduler.schedule(() -> flush(file), window, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Method to check if a file has a write pending.
+     * @param file path of the file.
+     * @return true if there is a write pending, false if not.
+     */
+    public boolean isPending(Path file) {
+        synchronized (pending) {
+            return pending.containsKey(file);
+        }
+    }
+
+    /**
+     * Method to do the pending write of a file now, if there is one. The IOException is ignored, as the json DAOs do
+     * when writing.
+     * @param file path of the file.
+     */
+    public void flush(Path file) {
+        while (true) {
+            PendingWrite write;
+            synchronized (pending) {
+                write = pending.get(file);
+            }
+            if (write == null) return;
+
+            synchronized (write.lock) {
+                synchronized (pending) {
+                    // it was replaced by a newer write while waiting for the lock, that one is written instead
+                    if (!pending.remove(file, write)) continue;
+                }
+                try {
+                    write.action.write();
+                } catch (IOException ignored) {}
+                return;
+            }
+        }
+    }
+
+    /**
+     * Method to do all the pending writes now.
+     */
+    public void flush() {
+        List<Path> files;
+        synchronized (pending) {
+            files = new ArrayList<>(pending.keySet());
+        }
+        for (Path file : files) {
+            flush(file);
+        }
+    }
+
+    /**
+     * Method to replace the content of a file atomically. The content is written in a temporary file next to it that
+     * is then moved over the file, so it is never left half written.
+     * @param file path of the file.
+     * @param content code that writes the content.
+     * @throws IOException if the file can not be written.
+     */
+    public static void replace(Path file, ContentWriter content) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = new FileWriter(temp.toFile())) {
+            content.write(writer);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
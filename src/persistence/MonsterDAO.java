@@ -2,7 +2,13 @@ package persistence;
 
 import business.entities.Monsters.Monster;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface to manage the data of the monsters.
@@ -17,4 +23,58 @@ public interface MonsterDAO {
      * @return List of monsters.
      */
     List<Monster> read();
+
+    /**
+     * Method to find a monster by its name. By default, all the monsters are read and the first one with the name
+     * is returned.
+     *
+     * @param name name of the monster.
+     * @return the monster, null if there is no monster with that name or the monsters can not be read.
+     */
+    default Monster find(String name) {
+        List<Monster> monsters = read();
+        if (monsters == null) return null;
+        for (Monster monster : monsters) {
+            if (monster.getName().equals(name)) {
+                return monster;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Method to find several monsters by their names at once. By default, all the monsters are read a single time and
+     * the ones with the names are kept, instead of reading them all again for each name.
+     *
+     * @param names names of the monsters.
+     * @return map with the monsters found by their name, without the names that have no monster.
+     */
+    default Map<String, Monster> findAll(Collection<String> names) {
+        Map<String, Monster> found = new HashMap<>();
+        List<Monster> monsters = read();
+        if (monsters == null) return found;
+
+        Set<String> wanted = new HashSet<>(names);
+        for (Monster monster : monsters) {
+            if (wanted.contains(monster.getName())) {
+                found.putIfAbsent(monster.getName(), monster);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Method to get the monsters without blocking. By default, they are read in another thread.
+     *
+     * @return Future with the list of monsters, completed with null if the persistence source can not be accessed.
+     */
+    default CompletableFuture<List<Monster>> readAsync() {
+        return CompletableFuture.supplyAsync(this::read);
+    }
+
+    /**
+     * Method to start reading the monsters in the background, so the next read does not wait for the whole request.
+     * By default, nothing is done.
+     */
+    default void preload() {}
 }
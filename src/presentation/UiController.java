@@ -3,6 +3,7 @@ package presentation;
 import business.AdventureManager;
 import business.CharacterManager;
 import business.EncounterManager;
+import business.combat.CombatLogRenderer;
 import business.entities.Adventure;
 import business.entities.Characters.CharacterGame;
 import business.entities.Encounter;
@@ -39,8 +40,6 @@ public class UiController {
      */
     private final UiManager ui;
 
-    private int persistenceSource;
-
     /**
      * Constructor with parameters to create a user interface controller.
      * @param cm Instance of the CharacterManager class {@link CharacterManager} to talk with the business layer.
@@ -57,7 +56,8 @@ public class UiController {
     /**
      * Main method of the controller and of the project logic.
      * If no problem finding the files is found. It will run infinitely until the exit option is pressed,
-     * presenting the user with the application's menu and executing the chosen option.
+     * presenting the user with the application's menu and executing the chosen option. Before returning, any change
+     * still waiting to be written is persisted.
      */
     public void run() {
         int option = 0;
@@ -68,19 +68,19 @@ public class UiController {
             option = ui.getIntInput();
 
             if (option == 1) {
-                persistenceSource = 1;
                 ui.printLoading();
                 if (!checkJSONFiles()) return;
             }
             else if (option == 2) {
-                persistenceSource = 2;
                 ui.printLoading();
                 em.setMonsterDao(2);
                 am.setAdventureDAO(2);
                 cm.setCharacterDAO(2);
 
+                em.preload();
+                cm.preload();
+                am.preload();
                 if (em.loadMonsters() == null) {
-                    persistenceSource = 1;
                     em.setMonsterDao(1);
                     am.setAdventureDAO(1);
                     cm.setCharacterDAO(1);
@@ -112,6 +112,8 @@ public class UiController {
                 default -> ui.printInvalidOption();
             }
         }
+        cm.flush();
+        am.flush();
     }
 
     /**
@@ -198,7 +200,7 @@ public class UiController {
                     input = ui.getStringInput();
                     if (input.equals(adventurers.get(index).getName())) {
                         ui.printDeleteCharacter(adventurers.get(index).getName());
-                        cm.deleteCharacter(adventurers.get(index).getName(), persistenceSource);
+                        cm.deleteCharacter(adventurers.get(index).getName());
                     }
                     else if (!input.equals("")){
                         ui.printInvalidName();
@@ -317,7 +319,11 @@ public class UiController {
         }
         else {
             List<CharacterGame> characters = new ArrayList<>(cm.getCharacters());
-            List<Adventure> adventures = new ArrayList<>(am.getAdventures());
+            List<String> adventures = am.getAdventureNames();
+            if (adventures == null) {
+                ui.printFileNotFound("adventures.json");
+                return;
+            }
 
             ui.listAdventures(adventures);
             int index = ui.getIntInput();
@@ -325,7 +331,13 @@ public class UiController {
             if (index < 1 || index > adventures.size()) {
                 ui.printInvalidOption();
             } else {
-                Adventure adventure = adventures.get(index - 1);
+                // The file may have changed since the names were read, or the adventure may not be readable
+                Adventure adventure = am.getAdventure(adventures.get(index - 1));
+                if (adventure == null) {
+                    ui.printFileNotFound("adventures.json");
+                    return;
+                }
+                em.createMonsters(adventure.getEncounters());
                 List<CharacterGame> party = getParty(characters, adventure);
                 if (party != null) {
                     cm.initializeHitPoints(party);
@@ -381,7 +393,9 @@ public class UiController {
         while (currentEncounter < adventure.getNumEncounters()) {
             ui.encounterInitialization(adventure.getEncounters().get(currentEncounter), currentEncounter + 1);
             ui.printPreparationStage(cm.preparationStage(party), am.rollInitiative(party, adventure, currentEncounter));
-            ui.printCombatStage(am.combatStage(adventure.getEncounters().get(currentEncounter), party));
+            CombatLogRenderer combatLog = new CombatLogRenderer();
+            am.combatStage(adventure.getEncounters().get(currentEncounter), party, combatLog);
+            ui.printCombatStage(combatLog.toString());
 
             if (!cm.partyIsAlive(party)) {
                 ui.printPartyDefeated();
@@ -391,6 +405,6 @@ public class UiController {
             currentEncounter++;
         }
         ui.printVictory(adventure.getName());
-        cm.updateLevel(party, persistenceSource);
+        cm.updateLevel(party);
     }
 }
@@ -380,17 +380,16 @@ public class UiManager {
 
     /**
      * Method to list all the adventures available.
-     * @param adventures a list of adventure (monster names) {@link Adventure} instances containing all the adventures
-     * in the system.
+     * @param adventures a list of strings containing the names of all the adventures {@link Adventure} in the system.
      */
-    public void listAdventures(List<Adventure> adventures) {
+    public void listAdventures(List<String> adventures) {
         System.out.println("""
                 \nTavern keeper: "So, you are looking to go on an adventure?"
                 "Where do you fancy going?"
                 
                 Available adventures:""");
         for (int i = 0; i < adventures.size(); i++) {
-            System.out.println("  " + (i + 1) + ". " + adventures.get(i).getName());
+            System.out.println("  " + (i + 1) + ". " + adventures.get(i));
         }
         System.out.print("\n-> Choose an adventure: ");
     }